@@ -0,0 +1,75 @@
+package os;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode throughput of {@link SnapshotCodec} over a run of synthetic frames, sharing one
+ * keyframe like a real capture. Reported per frame; divide by the metric count for per-point figures.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SnapshotCodecBenchmark {
+
+    private static final int FRAMES = 100;
+
+    @Param({"1000"})
+    public int mounts;
+
+    @Param({"8"})
+    public int fans;
+
+    private List<SystemSnapshot> frames;
+    private ByteBuffer encoded;
+    private ByteBuffer out;
+
+    @Setup
+    public void setUp() {
+        SyntheticMetricsSource source = new SyntheticMetricsSource(mounts, 256, fans, 42, 2000);
+        frames = new ArrayList<>(FRAMES);
+        for (int i = 0; i < FRAMES; i++) {
+            frames.add(source.poll());
+        }
+
+        out = ByteBuffer.allocateDirect(64 << 20);
+        encoded = ByteBuffer.allocateDirect(64 << 20);
+        SnapshotCodec.writeHeader(encoded);
+        SnapshotCodec.Encoder encoder = new SnapshotCodec.Encoder();
+        for (SystemSnapshot frame : frames) {
+            encoder.encode(frame, encoded);
+        }
+        encoded.flip();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FRAMES)
+    public int encode() {
+        out.clear();
+        SnapshotCodec.writeHeader(out);
+        SnapshotCodec.Encoder encoder = new SnapshotCodec.Encoder();
+        for (SystemSnapshot frame : frames) {
+            encoder.encode(frame, out);
+        }
+        return out.position();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FRAMES)
+    public void decode(Blackhole blackhole) {
+        ByteBuffer in = encoded.duplicate();
+        SnapshotCodec.readHeader(in);
+        SnapshotCodec.Decoder decoder = new SnapshotCodec.Decoder();
+        while (in.hasRemaining()) {
+            blackhole.consume(decoder.decode(in));
+        }
+    }
+}
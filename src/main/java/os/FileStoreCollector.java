@@ -0,0 +1,258 @@
+package os;
+
+import com.sun.jna.platform.linux.LibC;
+import oshi.software.os.FileSystem;
+import oshi.software.os.OSFileStore;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Collects file store usage without re-enumerating and re-stat'ing every mount on each tick.
+ * <p>
+ * On Linux the mount table is parsed from {@code /proc/self/mountinfo}, filtered before anything is
+ * stat'ed, and only re-parsed when its contents change. Usage is then queried per mount in parallel
+ * with a per-mount timeout. A mount that does not answer in time (e.g. a hung network mount) keeps
+ * its previous values, marked stale, and is not queried again until the outstanding call returns;
+ * later ticks do not wait for it at all. A query that is stuck past the timeout still holds its
+ * worker thread, so the pool grows by one thread per stuck query and shrinks once it returns; hung
+ * mounts can never starve the healthy ones.
+ * <p>
+ * Other platforms have no cheap mount table, so the OSHI list is rescanned periodically and
+ * filtered after enumeration. Between rescans each mount's space is read straight from its
+ * {@link FileStore}, in parallel as on Linux; {@code OSFileStore.updateAttributes()} is avoided
+ * because OSHI re-enumerates every mount for each call. Inode counts come from the last rescan.
+ */
+public class FileStoreCollector implements AutoCloseable {
+
+    private static final Path MOUNTINFO = Path.of("/proc/self/mountinfo");
+
+    record Mount(String name, String mount, String type, OSFileStore store) {
+    }
+
+    private final FileSystem fileSystem;
+    private final FileStoreFilter filter;
+    private final boolean linux;
+    private final long timeoutMillis;
+    private final long rescanMillis;
+    private final int threads;
+    private final ThreadPoolExecutor executor;
+
+    private final Map<String, Future<SystemSnapshot.FileStoreStats>> inFlight = new HashMap<>();
+    // Keyed per query, not per mount: a mount point can be remounted while a query of the old mount is stuck
+    private final Map<Object, Long> queryStartNanos = new ConcurrentHashMap<>();
+    private final Map<String, SystemSnapshot.FileStoreStats> lastKnown = new HashMap<>();
+    private final Map<String, FileStore> fileStores = new ConcurrentHashMap<>();
+    private List<Mount> mounts = List.of();
+    private byte[] mountInfo;
+    private long lastScanMillis;
+
+    public FileStoreCollector(FileSystem fileSystem, FileStoreFilter filter, boolean linux, long timeoutMillis,
+                              long rescanMillis, int threads) {
+        this.fileSystem = fileSystem;
+        this.filter = filter;
+        this.linux = linux;
+        this.timeoutMillis = timeoutMillis;
+        this.rescanMillis = rescanMillis;
+        this.threads = threads;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "file-store-query");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public List<SystemSnapshot.FileStoreStats> collect() {
+        refreshMounts();
+        resizePool();
+
+        Set<String> submitted = new HashSet<>();
+        for (Mount mount : mounts) {
+            if (!inFlight.containsKey(mount.mount())) {
+                inFlight.put(mount.mount(), executor.submit(() -> timedQuery(mount)));
+                submitted.add(mount.mount());
+            }
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        List<SystemSnapshot.FileStoreStats> result = new ArrayList<>(mounts.size());
+        for (Mount mount : mounts) {
+            Future<SystemSnapshot.FileStoreStats> future = inFlight.get(mount.mount());
+            // Only this tick's queries get the timeout; one carried over from an earlier tick has
+            // already had its chance, so it is only collected if it has finished in the meantime
+            long waitNanos = submitted.contains(mount.mount()) ? Math.max(0, deadline - System.nanoTime()) : 0;
+            try {
+                SystemSnapshot.FileStoreStats stats = future.get(waitNanos, TimeUnit.NANOSECONDS);
+                inFlight.remove(mount.mount());
+                lastKnown.put(mount.mount(), stats);
+            } catch (TimeoutException e) {
+                // Still waiting on this mount; show its last known values, marked stale
+                SystemSnapshot.FileStoreStats stale = lastKnown.get(mount.mount());
+                result.add(stale != null ? stale.asStale() : new SystemSnapshot.FileStoreStats(mount.name(),
+                        mount.mount(), mount.type(), -1, -1, -1, -1, true));
+                continue;
+            } catch (ExecutionException e) {
+                inFlight.remove(mount.mount());
+                lastKnown.remove(mount.mount());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+
+            SystemSnapshot.FileStoreStats stats = lastKnown.get(mount.mount());
+            if (stats != null) {
+                result.add(stats);
+            }
+        }
+        return result;
+    }
+
+    // Keep the full number of threads available to healthy mounts, however many queries are stuck
+    private void resizePool() {
+        long now = System.nanoTime();
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        int stuck = 0;
+        for (long started : queryStartNanos.values()) {
+            if (now - started > timeoutNanos) {
+                stuck++;
+            }
+        }
+
+        int size = threads + stuck;
+        if (size > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(size);
+            executor.setCorePoolSize(size);
+        } else if (size < executor.getCorePoolSize()) {
+            executor.setCorePoolSize(size);
+            executor.setMaximumPoolSize(size);
+        }
+    }
+
+    private SystemSnapshot.FileStoreStats timedQuery(Mount mount) throws IOException {
+        Object token = new Object();
+        queryStartNanos.put(token, System.nanoTime());
+        try {
+            return query(mount);
+        } finally {
+            queryStartNanos.remove(token);
+        }
+    }
+
+    private void refreshMounts() {
+        List<Mount> scanned;
+        if (linux) {
+            byte[] current;
+            try {
+                current = Files.readAllBytes(MOUNTINFO);
+            } catch (IOException e) {
+                return;
+            }
+            if (Arrays.equals(current, mountInfo)) {
+                return;
+            }
+            mountInfo = current;
+            scanned = parseMountInfo(new String(current, StandardCharsets.UTF_8), filter);
+        } else {
+            long now = System.currentTimeMillis();
+            if (lastScanMillis != 0 && now - lastScanMillis < rescanMillis) {
+                return;
+            }
+            lastScanMillis = now;
+            scanned = new ArrayList<>();
+            for (OSFileStore fs : fileSystem.getFileStores(filter.isLocalOnly())) {
+                if (filter.accepts(fs.getType(), fs.getMount())) {
+                    scanned.add(new Mount(fs.getName(), fs.getMount(), fs.getType(), fs));
+                }
+            }
+        }
+
+        // Forget mounts that went away
+        Set<String> present = new HashSet<>();
+        for (Mount mount : scanned) {
+            present.add(mount.mount());
+        }
+        inFlight.keySet().retainAll(present);
+        lastKnown.keySet().retainAll(present);
+        fileStores.keySet().retainAll(present);
+        mounts = scanned;
+    }
+
+    // Fields: id parent major:minor root mount-point options [optional...] - type source super-options
+    static List<Mount> parseMountInfo(String mountInfo, FileStoreFilter filter) {
+        Map<String, Mount> byMountPoint = new LinkedHashMap<>();
+        for (String line : mountInfo.split("\n")) {
+            String[] fields = line.split(" ");
+            int separator = Arrays.asList(fields).indexOf("-");
+            if (fields.length < 5 || separator < 0 || separator + 2 >= fields.length) {
+                continue;
+            }
+            String mountPoint = unescape(fields[4]);
+            // A later entry for the same mount point is stacked on top of the earlier one and hides it
+            byMountPoint.remove(mountPoint);
+            byMountPoint.put(mountPoint, new Mount(unescape(fields[separator + 2]), mountPoint,
+                    fields[separator + 1], null));
+        }
+
+        // Filter only the topmost mounts, since that is what statvfs on the mount point will see
+        List<Mount> visible = new ArrayList<>();
+        for (Mount mount : byMountPoint.values()) {
+            if (filter.accepts(mount.type(), mount.mount())) {
+                visible.add(mount);
+            }
+        }
+        return visible;
+    }
+
+    // The kernel escapes space, tab, newline and backslash as \ooo octal
+    static String unescape(String field) {
+        if (field.indexOf('\\') < 0) {
+            return field;
+        }
+        StringBuilder sb = new StringBuilder(field.length());
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == '\\' && i + 3 < field.length()) {
+                sb.append((char) Integer.parseInt(field.substring(i + 1, i + 4), 8));
+                i += 3;
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private SystemSnapshot.FileStoreStats query(Mount mount) throws IOException {
+        if (mount.store() != null) {
+            // Resolving the FileStore may scan the mount table, so do it once per mount
+            FileStore store = fileStores.get(mount.mount());
+            if (store == null) {
+                store = Files.getFileStore(Path.of(mount.mount()));
+                fileStores.put(mount.mount(), store);
+            }
+            OSFileStore scanned = mount.store();
+            return new SystemSnapshot.FileStoreStats(mount.name(), mount.mount(), mount.type(),
+                    store.getTotalSpace(), store.getUsableSpace(), scanned.getTotalInodes(),
+                    scanned.getFreeInodes(), false);
+        }
+
+        LibC.Statvfs vfs = new LibC.Statvfs();
+        if (LibC.INSTANCE.statvfs(mount.mount(), vfs) != 0) {
+            throw new IOException("statvfs failed for " + mount.mount());
+        }
+        long blockSize = vfs.f_frsize.longValue() > 0 ? vfs.f_frsize.longValue() : vfs.f_bsize.longValue();
+        return new SystemSnapshot.FileStoreStats(mount.name(), mount.mount(), mount.type(),
+                vfs.f_blocks.longValue() * blockSize, vfs.f_bavail.longValue() * blockSize,
+                vfs.f_files.longValue(), vfs.f_ffree.longValue(), false);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
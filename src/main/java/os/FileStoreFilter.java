@@ -0,0 +1,90 @@
+package os;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Include/exclude rules deciding which mounts are shown, applied to the mount table before any
+ * mount is stat'ed. Configured with comma-separated system properties:
+ * <pre>
+ *   -Dshm.fs.localOnly=true               (skip network file systems, default true)
+ *   -Dshm.fs.includeTypes=ext4,xfs        (only these types; default all)
+ *   -Dshm.fs.excludeTypes=tmpfs,overlay   (replaces the default pseudo/virtual type list)
+ *   -Dshm.fs.includeMounts=/home,/data    (only these mount paths and below; default all)
+ *   -Dshm.fs.excludeMounts=/snap,/run/user (replaces the default excluded paths)
+ * </pre>
+ */
+public class FileStoreFilter {
+
+    private static final Set<String> NETWORK_TYPES = Set.of(
+            "nfs", "nfs4", "cifs", "smbfs", "smb3", "afs", "ncpfs", "9p", "ceph", "glusterfs", "fuse.glusterfs",
+            "lustre", "gpfs", "davfs", "fuse.sshfs", "sshfs", "fuse.s3fs", "fuse.rclone");
+
+    private static final String DEFAULT_EXCLUDED_TYPES = "tmpfs,devtmpfs,ramfs,overlay,squashfs,proc,sysfs,"
+            + "cgroup,cgroup2,devpts,mqueue,debugfs,tracefs,securityfs,pstore,bpf,configfs,fusectl,hugetlbfs,"
+            + "binfmt_misc,efivarfs,autofs,nsfs,rpc_pipefs,selinuxfs,fuse.gvfsd-fuse,fuse.portal";
+
+    // Only the pseudo areas of /run; removable drives are mounted under /run/media and must stay visible
+    private static final String DEFAULT_EXCLUDED_MOUNTS = "/proc,/sys,/dev,/run/user,/run/lock,/run/credentials,"
+            + "/run/netns,/run/docker,/run/containerd,/run/snapd,/snap,/var/lib/docker";
+
+    private final boolean localOnly;
+    private final Set<String> includeTypes;
+    private final Set<String> excludeTypes;
+    private final List<String> includeMounts;
+    private final List<String> excludeMounts;
+
+    public FileStoreFilter(boolean localOnly, Set<String> includeTypes, Set<String> excludeTypes,
+                           List<String> includeMounts, List<String> excludeMounts) {
+        this.localOnly = localOnly;
+        this.includeTypes = includeTypes;
+        this.excludeTypes = excludeTypes;
+        this.includeMounts = includeMounts;
+        this.excludeMounts = excludeMounts;
+    }
+
+    public static FileStoreFilter fromSystemProperties() {
+        return new FileStoreFilter(
+                Boolean.parseBoolean(System.getProperty("shm.fs.localOnly", "true")),
+                Set.copyOf(split(System.getProperty("shm.fs.includeTypes", ""))),
+                Set.copyOf(split(System.getProperty("shm.fs.excludeTypes", DEFAULT_EXCLUDED_TYPES))),
+                split(System.getProperty("shm.fs.includeMounts", "")),
+                split(System.getProperty("shm.fs.excludeMounts", DEFAULT_EXCLUDED_MOUNTS)));
+    }
+
+    public boolean isLocalOnly() {
+        return localOnly;
+    }
+
+    public boolean accepts(String type, String mount) {
+        if (localOnly && NETWORK_TYPES.contains(type)) {
+            return false;
+        }
+        if (!includeTypes.isEmpty() && !includeTypes.contains(type)) {
+            return false;
+        }
+        if (excludeTypes.contains(type)) {
+            return false;
+        }
+        if (!includeMounts.isEmpty() && includeMounts.stream().noneMatch(path -> isUnder(mount, path))) {
+            return false;
+        }
+        return excludeMounts.stream().noneMatch(path -> isUnder(mount, path));
+    }
+
+    // "/sys" covers "/sys" and "/sys/fs/cgroup" but not "/system"
+    private static boolean isUnder(String mount, String path) {
+        return mount.equals(path) || mount.startsWith(path.endsWith("/") ? path : path + "/");
+    }
+
+    private static List<String> split(String value) {
+        Set<String> values = new LinkedHashSet<>();
+        for (String item : value.split(",")) {
+            if (!item.isBlank()) {
+                values.add(item.trim());
+            }
+        }
+        return List.copyOf(values);
+    }
+}
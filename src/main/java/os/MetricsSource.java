@@ -0,0 +1,79 @@
+package os;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Where the monitor gets its snapshots from. Selected with system properties:
+ * <pre>
+ *   -Dshm.source=live|replay|synthetic    (default live)
+ *   -Dshm.replay.file=capture.shm -Dshm.replay.speed=1|4x|max
+ *   -Dshm.synthetic.mounts=2000 -Dshm.synthetic.cores=1024 -Dshm.synthetic.fans=16 -Dshm.synthetic.seed=42
+ *   -Dshm.record=capture.shm               (record whatever the source produces)
+ *   -Dshm.refreshMillis=2000
+ * </pre>
+ */
+public interface MetricsSource extends AutoCloseable {
+
+    SystemSnapshot poll();
+
+    /**
+     * How long the consumer should wait, after rendering the last snapshot, before polling again.
+     * A replay returns the time until its next frame is due at the replay speed, and 0 at max speed
+     * so the next frame is shown as soon as the previous one has been rendered.
+     */
+    default long nextPollDelayNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(refreshMillis());
+    }
+
+    /**
+     * Whether the source has nothing new left to produce (a replay that has reached the end of its
+     * capture). The consumer stops polling once the last snapshot has been shown.
+     */
+    default boolean isExhausted() {
+        return false;
+    }
+
+    @Override
+    default void close() throws IOException {
+    }
+
+    static long refreshMillis() {
+        return Long.getLong("shm.refreshMillis", 2000);
+    }
+
+    static MetricsSource fromSystemProperties() throws IOException {
+        String kind = System.getProperty("shm.source", "live");
+        MetricsSource source = switch (kind) {
+            case "live" -> new OshiMetricsSource();
+            case "replay" -> {
+                String file = System.getProperty("shm.replay.file");
+                if (file == null) {
+                    throw new IllegalArgumentException("shm.source=replay requires -Dshm.replay.file");
+                }
+                SnapshotFile.Reader reader = SnapshotFile.open(Path.of(file));
+                try {
+                    yield new ReplayMetricsSource(reader,
+                            ReplayMetricsSource.parseSpeed(System.getProperty("shm.replay.speed", "1")));
+                } catch (IOException | RuntimeException e) {
+                    reader.close();
+                    throw e;
+                }
+            }
+            case "synthetic" -> new SyntheticMetricsSource(
+                    Integer.getInteger("shm.synthetic.mounts", 1000),
+                    Integer.getInteger("shm.synthetic.cores", 256),
+                    Integer.getInteger("shm.synthetic.fans", 8),
+                    Long.getLong("shm.synthetic.seed", 42),
+                    refreshMillis());
+            default -> throw new IllegalArgumentException("Unknown shm.source: " + kind);
+        };
+
+        String record = System.getProperty("shm.record");
+        if (record != null) {
+            source = new RecordingMetricsSource(source, SnapshotFile.create(Path.of(record)));
+        }
+        return source;
+    }
+}
@@ -0,0 +1,89 @@
+package os;
+
+import oshi.PlatformEnum;
+import oshi.SystemInfo;
+import oshi.hardware.*;
+import oshi.software.os.OperatingSystem;
+import oshi.util.FileUtil;
+import oshi.util.ParseUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Live backend reading the local machine through OSHI.
+ */
+public class OshiMetricsSource implements MetricsSource {
+
+    private final SystemInfo systemInfo = new SystemInfo();
+    private final HardwareAbstractionLayer hal = systemInfo.getHardware();
+    private final OperatingSystem os = systemInfo.getOperatingSystem();
+    private long[] prevTicks = hal.getProcessor().getSystemCpuLoadTicks();
+
+    // Static hardware details, looked up once
+    private final String osName = os.toString();
+    private final String cpuName = hal.getProcessor().getProcessorIdentifier().getName();
+    private final int physicalCores = hal.getProcessor().getPhysicalProcessorCount();
+    private final int logicalCores = hal.getProcessor().getLogicalProcessorCount();
+    private final List<SystemSnapshot.MemoryModule> memoryModules = readMemoryModules();
+    private final boolean linux = SystemInfo.getCurrentPlatform() == PlatformEnum.LINUX;
+    private final FileStoreCollector fileStoreCollector = new FileStoreCollector(os.getFileSystem(),
+            FileStoreFilter.fromSystemProperties(), linux, Long.getLong("shm.fs.timeoutMillis", 500),
+            Long.getLong("shm.fs.rescanMillis", 60_000), Integer.getInteger("shm.fs.threads", 4));
+
+    @Override
+    public SystemSnapshot poll() {
+        CentralProcessor cpu = hal.getProcessor();
+        double cpuLoad = cpu.getSystemCpuLoadBetweenTicks(prevTicks);
+        prevTicks = cpu.getSystemCpuLoadTicks();
+
+        GlobalMemory mem = hal.getMemory();
+        VirtualMemory vm = mem.getVirtualMemory();
+
+        // OSHI has no system-wide page fault counters; Linux exposes them in /proc/vmstat
+        long pageFaults = -1;
+        long majorPageFaults = -1;
+        if (linux) {
+            Map<String, String> vmstat = FileUtil.getKeyValueMapFromFile("/proc/vmstat", " ");
+            pageFaults = ParseUtil.parseLongOrDefault(vmstat.getOrDefault("pgfault", ""), -1);
+            majorPageFaults = ParseUtil.parseLongOrDefault(vmstat.getOrDefault("pgmajfault", ""), -1);
+        }
+
+        List<SystemSnapshot.FileStoreStats> fileStores = fileStoreCollector.collect();
+
+        Sensors sensors = hal.getSensors();
+
+        List<SystemSnapshot.GpuInfo> gpus = new ArrayList<>();
+        for (GraphicsCard gpu : hal.getGraphicsCards()) {
+            gpus.add(new SystemSnapshot.GpuInfo(gpu.getName(), gpu.getVendor(), gpu.getVersionInfo(), gpu.getVRam()));
+        }
+
+        return new SystemSnapshot(
+                System.currentTimeMillis(),
+                osName,
+                os.getSystemUptime(),
+                new SystemSnapshot.CpuStats(cpuName, physicalCores, logicalCores, cpuLoad),
+                new SystemSnapshot.MemoryStats(mem.getTotal(), mem.getAvailable(),
+                        vm.getSwapTotal(), vm.getSwapUsed(), vm.getVirtualInUse(), vm.getVirtualMax(),
+                        vm.getSwapPagesIn(), vm.getSwapPagesOut(), pageFaults, majorPageFaults, memoryModules),
+                fileStores,
+                new SystemSnapshot.SensorStats(sensors.getCpuTemperature(), sensors.getFanSpeeds(),
+                        sensors.getCpuVoltage()),
+                gpus);
+    }
+
+    @Override
+    public void close() {
+        fileStoreCollector.close();
+    }
+
+    private List<SystemSnapshot.MemoryModule> readMemoryModules() {
+        List<SystemSnapshot.MemoryModule> modules = new ArrayList<>();
+        for (PhysicalMemory module : hal.getMemory().getPhysicalMemory()) {
+            modules.add(new SystemSnapshot.MemoryModule(module.getBankLabel(), module.getCapacity(),
+                    module.getClockSpeed(), module.getManufacturer(), module.getMemoryType()));
+        }
+        return List.copyOf(modules);
+    }
+}
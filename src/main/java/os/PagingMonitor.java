@@ -0,0 +1,90 @@
+package os;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Turns the cumulative swap and page-fault counters of successive snapshots into per-second rates,
+ * keeps a short history of them and flags when the machine is swapping.
+ */
+public class PagingMonitor {
+
+    public record PagingRates(double swapInPerSec, double swapOutPerSec, double faultsPerSec,
+                              double majorFaultsPerSec) {
+
+        public static final PagingRates UNKNOWN = new PagingRates(-1, -1, -1, -1);
+
+        public double swapPerSec() {
+            if (swapInPerSec < 0 || swapOutPerSec < 0) {
+                return -1;
+            }
+            return swapInPerSec + swapOutPerSec;
+        }
+    }
+
+    private final int historySize;
+    private final double swapAlertPagesPerSec;
+    private final Deque<PagingRates> history = new ArrayDeque<>();
+
+    private SystemSnapshot.MemoryStats prevMemory;
+    private long prevTimestampMillis;
+    private PagingRates latest = PagingRates.UNKNOWN;
+
+    public PagingMonitor(int historySize, double swapAlertPagesPerSec) {
+        this.historySize = historySize;
+        this.swapAlertPagesPerSec = swapAlertPagesPerSec;
+    }
+
+    public PagingRates update(long timestampMillis, SystemSnapshot.MemoryStats memory) {
+        if (prevMemory != null && timestampMillis > prevTimestampMillis) {
+            double seconds = (timestampMillis - prevTimestampMillis) / 1000.0;
+            latest = new PagingRates(
+                    rate(prevMemory.swapPagesIn(), memory.swapPagesIn(), seconds),
+                    rate(prevMemory.swapPagesOut(), memory.swapPagesOut(), seconds),
+                    rate(prevMemory.pageFaults(), memory.pageFaults(), seconds),
+                    rate(prevMemory.majorPageFaults(), memory.majorPageFaults(), seconds));
+
+            history.addLast(latest);
+            if (history.size() > historySize) {
+                history.removeFirst();
+            }
+        }
+        prevMemory = memory;
+        prevTimestampMillis = timestampMillis;
+        return latest;
+    }
+
+    public PagingRates latest() {
+        return latest;
+    }
+
+    public List<PagingRates> history() {
+        return new ArrayList<>(history);
+    }
+
+    public double peakSwapPerSec() {
+        double peak = -1;
+        for (PagingRates rates : history) {
+            peak = Math.max(peak, rates.swapPerSec());
+        }
+        return peak;
+    }
+
+    public double alertThreshold() {
+        return swapAlertPagesPerSec;
+    }
+
+    public boolean isSwapping() {
+        return latest.swapPerSec() > swapAlertPagesPerSec;
+    }
+
+    private static double rate(long previous, long current, double seconds) {
+        if (previous < 0 || current < 0) {
+            return -1;
+        }
+        // Counters can reset (e.g. a replay looping over a reboot); never report a negative rate
+        return Math.max(0, current - previous) / seconds;
+    }
+}
@@ -0,0 +1,48 @@
+package os;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Passes snapshots through from another source while appending each one to a capture file.
+ */
+public class RecordingMetricsSource implements MetricsSource {
+
+    private final MetricsSource delegate;
+    private final SnapshotFile.Writer writer;
+
+    public RecordingMetricsSource(MetricsSource delegate, SnapshotFile.Writer writer) {
+        this.delegate = delegate;
+        this.writer = writer;
+    }
+
+    @Override
+    public SystemSnapshot poll() {
+        SystemSnapshot snapshot = delegate.poll();
+        try {
+            writer.write(snapshot);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to record snapshot", e);
+        }
+        return snapshot;
+    }
+
+    @Override
+    public long nextPollDelayNanos() {
+        return delegate.nextPollDelayNanos();
+    }
+
+    @Override
+    public boolean isExhausted() {
+        return delegate.isExhausted();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            writer.close();
+        } finally {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package os;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Streams a recorded capture back, either paced against the wall clock at a speed factor
+ * (1x, Nx) or one frame per poll as fast as the consumer asks ("max"). When paced, the consumer is
+ * asked to poll again exactly when the next frame is due, so Nx shows every frame N times faster.
+ * Frames are read from the capture as they are needed, so only the current and the next one
+ * are held in memory. Once the last frame has been returned the source reports itself exhausted.
+ */
+public class ReplayMetricsSource implements MetricsSource {
+
+    public static final double MAX_SPEED = Double.POSITIVE_INFINITY;
+
+    private final SnapshotFile.Reader reader;
+    private final double speed;
+    private final long firstTimestamp;
+    private SystemSnapshot current;
+    private SystemSnapshot next;
+    private long startNanos = -1;
+    private boolean exhausted;
+
+    public ReplayMetricsSource(SnapshotFile.Reader reader, double speed) throws IOException {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("Replay speed must be positive: " + speed);
+        }
+        this.reader = reader;
+        this.speed = speed;
+        this.current = reader.next();
+        if (current == null) {
+            throw new IOException("Capture contains no snapshots");
+        }
+        this.firstTimestamp = current.timestampMillis();
+        this.next = reader.next();
+    }
+
+    @Override
+    public long nextPollDelayNanos() {
+        if (speed == MAX_SPEED || next == null) {
+            return 0;
+        }
+        long dueNanos = startNanos + (long) ((next.timestampMillis() - firstTimestamp) * 1_000_000 / speed);
+        return Math.max(0, dueNanos - System.nanoTime());
+    }
+
+    @Override
+    public SystemSnapshot poll() {
+        if (speed == MAX_SPEED) {
+            SystemSnapshot frame = current;
+            exhausted = next == null;
+            advance();
+            return frame;
+        }
+
+        long now = System.nanoTime();
+        if (startNanos < 0) {
+            startNanos = now;
+        }
+
+        // Advance to the latest frame whose recorded offset has been reached on the scaled clock
+        double replayedMillis = (now - startNanos) / 1_000_000.0 * speed;
+        while (next != null && next.timestampMillis() - firstTimestamp <= replayedMillis) {
+            advance();
+        }
+        exhausted = next == null;
+        return current;
+    }
+
+    @Override
+    public boolean isExhausted() {
+        return exhausted;
+    }
+
+    private void advance() {
+        if (next == null) {
+            return;
+        }
+        current = next;
+        try {
+            next = reader.next();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read capture", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    public static double parseSpeed(String value) {
+        String speed = value.trim().toLowerCase();
+        if (speed.equals("max")) {
+            return MAX_SPEED;
+        }
+        if (speed.endsWith("x")) {
+            speed = speed.substring(0, speed.length() - 1);
+        }
+        return Double.parseDouble(speed);
+    }
+}
@@ -0,0 +1,448 @@
+package os;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Versioned binary codec for {@link SystemSnapshot} streams, reading and writing {@link ByteBuffer}s directly.
+ * <p>
+ * A stream starts with a header, followed by frames. A keyframe carries the schema dictionary (the static
+ * strings plus the kind and name of every metric ID) and resets all delta state; it is emitted for the first
+ * snapshot and whenever the shape of the machine changes (mounts, fans, modules, ...). Ordinary frames carry
+ * only numbers:
+ * <ul>
+ *   <li>timestamps as a zigzag varint delta-of-delta,</li>
+ *   <li>doubles XOR'ed with the previous value of the same metric, storing only the non-zero byte window,</li>
+ *   <li>longs (gauges and counters) as a zigzag varint delta from the previous value.</li>
+ * </ul>
+ * Encoder and decoder are stateful and must see the same frames in the same order.
+ */
+public final class SnapshotCodec {
+
+    public static final int MAGIC = 0x53484D53; // "SHMS"
+    public static final byte VERSION = 1;
+
+    private static final byte TAG_KEYFRAME = 1;
+    private static final byte TAG_FRAME = 2;
+
+    private static final byte KIND_LONG = 0;
+    private static final byte KIND_DOUBLE = 1;
+
+    // Fixed metric IDs; fans and file stores follow
+    private static final String[] FIXED_METRICS = {
+            "uptime", "cpu.load", "mem.total", "mem.available", "swap.total", "swap.used", "virtual.inUse",
+            "virtual.max", "swap.pagesIn", "swap.pagesOut", "mem.pageFaults", "mem.majorPageFaults",
+            "sensors.cpuTemperature", "sensors.cpuVoltage"};
+    private static final byte[] FIXED_KINDS = {
+            KIND_LONG, KIND_DOUBLE, KIND_LONG, KIND_LONG, KIND_LONG, KIND_LONG, KIND_LONG,
+            KIND_LONG, KIND_LONG, KIND_LONG, KIND_LONG, KIND_LONG,
+            KIND_DOUBLE, KIND_DOUBLE};
+    private static final int FILE_STORE_METRICS = 5;
+
+    private SnapshotCodec() {
+    }
+
+    public static void writeHeader(ByteBuffer out) {
+        out.putInt(MAGIC);
+        out.put(VERSION);
+    }
+
+    public static void readHeader(ByteBuffer in) {
+        if (in.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a snapshot stream");
+        }
+        byte version = in.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported snapshot stream version " + version);
+        }
+    }
+
+    public static final class Encoder {
+
+        private SystemSnapshot keyframe;
+        private long[] prev = new long[0];
+        private long prevTimestamp;
+        private long prevDelta;
+
+        /**
+         * Appends one frame. If {@code out} runs out of space, its position is restored, the next frame is
+         * forced to be a keyframe and the {@link BufferOverflowException} is rethrown so the caller can retry
+         * with a larger buffer.
+         */
+        public void encode(SystemSnapshot snapshot, ByteBuffer out) {
+            int start = out.position();
+            try {
+                if (keyframe == null || !sameShape(keyframe, snapshot)) {
+                    out.put(TAG_KEYFRAME);
+                    writeDictionary(snapshot, out);
+                    keyframe = snapshot;
+                    prev = new long[metricCount(snapshot)];
+                    prevTimestamp = 0;
+                    prevDelta = 0;
+                } else {
+                    out.put(TAG_FRAME);
+                }
+                writeValues(snapshot, out);
+            } catch (BufferOverflowException e) {
+                out.position(start);
+                keyframe = null;
+                throw e;
+            }
+        }
+
+        private void writeValues(SystemSnapshot s, ByteBuffer out) {
+            long delta = s.timestampMillis() - prevTimestamp;
+            writeVarLong(out, zigzag(delta - prevDelta));
+            prevTimestamp = s.timestampMillis();
+            prevDelta = delta;
+
+            SystemSnapshot.MemoryStats mem = s.memory();
+            SystemSnapshot.SensorStats sensors = s.sensors();
+            putLong(out, 0, s.uptimeSeconds());
+            putDouble(out, 1, s.cpu().load());
+            putLong(out, 2, mem.total());
+            putLong(out, 3, mem.available());
+            putLong(out, 4, mem.swapTotal());
+            putLong(out, 5, mem.swapUsed());
+            putLong(out, 6, mem.virtualInUse());
+            putLong(out, 7, mem.virtualMax());
+            putLong(out, 8, mem.swapPagesIn());
+            putLong(out, 9, mem.swapPagesOut());
+            putLong(out, 10, mem.pageFaults());
+            putLong(out, 11, mem.majorPageFaults());
+            putDouble(out, 12, sensors.cpuTemperature());
+            putDouble(out, 13, sensors.cpuVoltage());
+
+            int id = FIXED_METRICS.length;
+            int[] fans = sensors.fanSpeeds();
+            for (int i = 0; i < fans.length; i++) {
+                putLong(out, id++, fans[i]);
+            }
+            List<SystemSnapshot.FileStoreStats> stores = s.fileStores();
+            for (int i = 0; i < stores.size(); i++) {
+                SystemSnapshot.FileStoreStats fs = stores.get(i);
+                putLong(out, id++, fs.totalSpace());
+                putLong(out, id++, fs.usableSpace());
+                putLong(out, id++, fs.totalInodes());
+                putLong(out, id++, fs.freeInodes());
+                putLong(out, id++, fs.stale() ? 1 : 0);
+            }
+        }
+
+        private void putLong(ByteBuffer out, int id, long value) {
+            writeVarLong(out, zigzag(value - prev[id]));
+            prev[id] = value;
+        }
+
+        private void putDouble(ByteBuffer out, int id, double value) {
+            long bits = Double.doubleToRawLongBits(value);
+            long xor = bits ^ prev[id];
+            prev[id] = bits;
+            if (xor == 0) {
+                out.put((byte) 0);
+                return;
+            }
+            int leading = Long.numberOfLeadingZeros(xor) >>> 3;
+            int length = 8 - leading - (Long.numberOfTrailingZeros(xor) >>> 3);
+            long window = xor >>> ((8 - leading - length) << 3);
+            out.put((byte) (leading << 4 | length));
+            for (int i = length - 1; i >= 0; i--) {
+                out.put((byte) (window >>> (i << 3)));
+            }
+        }
+    }
+
+    public static final class Decoder {
+
+        private String osName;
+        private String cpuName;
+        private int physicalCores;
+        private int logicalCores;
+        private List<SystemSnapshot.MemoryModule> modules;
+        private List<SystemSnapshot.GpuInfo> gpus;
+        private String[] storeNames;
+        private String[] storeMounts;
+        private String[] storeTypes;
+        private int fanCount;
+        private byte[] kinds;
+        private String[] metricNames;
+        private long[] prev;
+        private long prevTimestamp;
+        private long prevDelta;
+
+        /**
+         * Reads the next frame. Throws {@link BufferUnderflowException} if the frame is incomplete and
+         * {@link IllegalArgumentException} if the stream is corrupt; the decoder cannot be reused after either.
+         */
+        public SystemSnapshot decode(ByteBuffer in) {
+            byte tag = in.get();
+            if (tag == TAG_KEYFRAME) {
+                readDictionary(in);
+                prev = new long[kinds.length];
+                prevTimestamp = 0;
+                prevDelta = 0;
+            } else if (tag != TAG_FRAME) {
+                throw new IllegalArgumentException("Unknown frame tag " + tag);
+            } else if (kinds == null) {
+                throw new IllegalArgumentException("Frame before the first keyframe");
+            }
+
+            long timestamp = prevTimestamp + prevDelta + unzigzag(readVarLong(in));
+            prevDelta = timestamp - prevTimestamp;
+            prevTimestamp = timestamp;
+
+            for (int id = 0; id < kinds.length; id++) {
+                if (kinds[id] == KIND_DOUBLE) {
+                    prev[id] ^= readXor(in);
+                } else {
+                    prev[id] += unzigzag(readVarLong(in));
+                }
+            }
+
+            return toSnapshot(timestamp);
+        }
+
+        public String metricName(int id) {
+            return metricNames[id];
+        }
+
+        public int metricCount() {
+            return metricNames == null ? 0 : metricNames.length;
+        }
+
+        private SystemSnapshot toSnapshot(long timestamp) {
+            int id = FIXED_METRICS.length;
+            int[] fans = new int[fanCount];
+            for (int i = 0; i < fanCount; i++) {
+                fans[i] = (int) prev[id++];
+            }
+            List<SystemSnapshot.FileStoreStats> stores = new ArrayList<>(storeNames.length);
+            for (int i = 0; i < storeNames.length; i++) {
+                stores.add(new SystemSnapshot.FileStoreStats(storeNames[i], storeMounts[i], storeTypes[i],
+                        prev[id], prev[id + 1], prev[id + 2], prev[id + 3], prev[id + 4] != 0));
+                id += FILE_STORE_METRICS;
+            }
+
+            return new SystemSnapshot(
+                    timestamp,
+                    osName,
+                    prev[0],
+                    new SystemSnapshot.CpuStats(cpuName, physicalCores, logicalCores, Double.longBitsToDouble(prev[1])),
+                    new SystemSnapshot.MemoryStats(prev[2], prev[3], prev[4], prev[5], prev[6], prev[7], prev[8],
+                            prev[9], prev[10], prev[11], modules),
+                    stores,
+                    new SystemSnapshot.SensorStats(Double.longBitsToDouble(prev[12]), fans,
+                            Double.longBitsToDouble(prev[13])),
+                    gpus);
+        }
+
+        private void readDictionary(ByteBuffer in) {
+            osName = readString(in);
+            cpuName = readString(in);
+            physicalCores = readInt(in);
+            logicalCores = readInt(in);
+
+            int moduleCount = readCount(in);
+            List<SystemSnapshot.MemoryModule> moduleList = new ArrayList<>(moduleCount);
+            for (int i = 0; i < moduleCount; i++) {
+                moduleList.add(new SystemSnapshot.MemoryModule(readString(in), readVarLong(in), readVarLong(in),
+                        readString(in), readString(in)));
+            }
+            modules = List.copyOf(moduleList);
+
+            int gpuCount = readCount(in);
+            List<SystemSnapshot.GpuInfo> gpuList = new ArrayList<>(gpuCount);
+            for (int i = 0; i < gpuCount; i++) {
+                gpuList.add(new SystemSnapshot.GpuInfo(readString(in), readString(in), readString(in),
+                        readVarLong(in)));
+            }
+            gpus = List.copyOf(gpuList);
+
+            fanCount = readCount(in);
+            int storeCount = readCount(in);
+            storeNames = new String[storeCount];
+            storeMounts = new String[storeCount];
+            storeTypes = new String[storeCount];
+            for (int i = 0; i < storeCount; i++) {
+                storeNames[i] = readString(in);
+                storeMounts[i] = readString(in);
+                storeTypes[i] = readString(in);
+            }
+
+            int metricCount = readCount(in);
+            if (metricCount != FIXED_METRICS.length + fanCount + storeCount * FILE_STORE_METRICS) {
+                throw new IllegalArgumentException("Schema has " + metricCount + " metrics, expected "
+                        + (FIXED_METRICS.length + fanCount + storeCount * FILE_STORE_METRICS));
+            }
+            kinds = new byte[metricCount];
+            metricNames = new String[metricCount];
+            for (int id = 0; id < metricCount; id++) {
+                kinds[id] = in.get();
+                if (kinds[id] != KIND_LONG && kinds[id] != KIND_DOUBLE) {
+                    throw new IllegalArgumentException("Unknown metric kind " + kinds[id]);
+                }
+                metricNames[id] = readString(in);
+            }
+        }
+    }
+
+    private static boolean sameShape(SystemSnapshot a, SystemSnapshot b) {
+        if (!a.osName().equals(b.osName())
+                || !a.cpu().name().equals(b.cpu().name())
+                || a.cpu().physicalCores() != b.cpu().physicalCores()
+                || a.cpu().logicalCores() != b.cpu().logicalCores()
+                || a.sensors().fanSpeeds().length != b.sensors().fanSpeeds().length
+                || !a.memory().modules().equals(b.memory().modules())
+                || !a.gpus().equals(b.gpus())
+                || a.fileStores().size() != b.fileStores().size()) {
+            return false;
+        }
+        for (int i = 0; i < a.fileStores().size(); i++) {
+            SystemSnapshot.FileStoreStats x = a.fileStores().get(i);
+            SystemSnapshot.FileStoreStats y = b.fileStores().get(i);
+            if (!x.name().equals(y.name()) || !x.mount().equals(y.mount()) || !x.type().equals(y.type())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int metricCount(SystemSnapshot s) {
+        return FIXED_METRICS.length + s.sensors().fanSpeeds().length + s.fileStores().size() * FILE_STORE_METRICS;
+    }
+
+    private static void writeDictionary(SystemSnapshot s, ByteBuffer out) {
+        writeString(out, s.osName());
+        writeString(out, s.cpu().name());
+        writeVarLong(out, s.cpu().physicalCores());
+        writeVarLong(out, s.cpu().logicalCores());
+
+        List<SystemSnapshot.MemoryModule> modules = s.memory().modules();
+        writeVarLong(out, modules.size());
+        for (SystemSnapshot.MemoryModule module : modules) {
+            writeString(out, module.bankLabel());
+            writeVarLong(out, module.capacity());
+            writeVarLong(out, module.clockSpeed());
+            writeString(out, module.manufacturer());
+            writeString(out, module.memoryType());
+        }
+
+        writeVarLong(out, s.gpus().size());
+        for (SystemSnapshot.GpuInfo gpu : s.gpus()) {
+            writeString(out, gpu.name());
+            writeString(out, gpu.vendor());
+            writeString(out, gpu.versionInfo());
+            writeVarLong(out, gpu.vram());
+        }
+
+        int fans = s.sensors().fanSpeeds().length;
+        writeVarLong(out, fans);
+        writeVarLong(out, s.fileStores().size());
+        for (SystemSnapshot.FileStoreStats fs : s.fileStores()) {
+            writeString(out, fs.name());
+            writeString(out, fs.mount());
+            writeString(out, fs.type());
+        }
+
+        writeVarLong(out, metricCount(s));
+        for (int id = 0; id < FIXED_METRICS.length; id++) {
+            out.put(FIXED_KINDS[id]);
+            writeString(out, FIXED_METRICS[id]);
+        }
+        for (int i = 0; i < fans; i++) {
+            out.put(KIND_LONG);
+            writeString(out, "fan." + i);
+        }
+        for (SystemSnapshot.FileStoreStats fs : s.fileStores()) {
+            String prefix = "fs." + fs.mount() + ".";
+            for (String metric : new String[]{"totalSpace", "usableSpace", "totalInodes", "freeInodes", "stale"}) {
+                out.put(KIND_LONG);
+                writeString(out, prefix + metric);
+            }
+        }
+    }
+
+    private static long readXor(ByteBuffer in) {
+        int header = in.get() & 0xFF;
+        if (header == 0) {
+            return 0;
+        }
+        int leading = header >>> 4;
+        int length = header & 0x0F;
+        if (length == 0 || leading + length > 8) {
+            throw new IllegalArgumentException("Corrupt XOR header " + header);
+        }
+        long window = 0;
+        for (int i = 0; i < length; i++) {
+            window = window << 8 | (in.get() & 0xFF);
+        }
+        return window << ((8 - leading - length) << 3);
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static void writeVarLong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint longer than 10 bytes");
+    }
+
+    // A count can never exceed the bytes left, since every counted element takes at least one byte
+    private static int readCount(ByteBuffer in) {
+        long count = readVarLong(in);
+        if (count < 0 || count > in.remaining()) {
+            throw new IllegalArgumentException("Invalid count " + count);
+        }
+        return (int) count;
+    }
+
+    private static int readInt(ByteBuffer in) {
+        long value = readVarLong(in);
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid int " + value);
+        }
+        return (int) value;
+    }
+
+    private static void writeString(ByteBuffer out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.put(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = readCount(in);
+        if (in.hasArray()) {
+            String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+            return value;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,171 @@
+package os;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Capture file used by record and replay: a {@link SnapshotCodec} header followed by codec frames,
+ * each prefixed with its length as a varint so a reader can stream the file one frame at a time.
+ */
+public final class SnapshotFile {
+
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_VARINT_BYTES = 10;
+
+    private SnapshotFile() {
+    }
+
+    public static Writer create(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(16);
+        SnapshotCodec.writeHeader(header);
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        return new Writer(channel);
+    }
+
+    public static Reader open(Path path) throws IOException {
+        return new Reader(path, FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    public static final class Writer implements Closeable {
+
+        private final FileChannel channel;
+        private final SnapshotCodec.Encoder encoder = new SnapshotCodec.Encoder();
+        private final ByteBuffer length = ByteBuffer.allocate(MAX_VARINT_BYTES);
+        private ByteBuffer frame = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+
+        private Writer(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        public void write(SystemSnapshot snapshot) throws IOException {
+            frame.clear();
+            while (true) {
+                try {
+                    encoder.encode(snapshot, frame);
+                    break;
+                } catch (BufferOverflowException e) {
+                    // Frame did not fit; grow the buffer and retry (the encoder falls back to a keyframe)
+                    frame = ByteBuffer.allocate(frame.capacity() * 2);
+                }
+            }
+            frame.flip();
+
+            length.clear();
+            SnapshotCodec.writeVarLong(length, frame.remaining());
+            length.flip();
+
+            ByteBuffer[] buffers = {length, frame};
+            while (frame.hasRemaining()) {
+                channel.write(buffers);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Reads a capture frame by frame, holding at most one frame in memory.
+     */
+    public static final class Reader implements Closeable {
+
+        private final Path path;
+        private final FileChannel channel;
+        private final SnapshotCodec.Decoder decoder = new SnapshotCodec.Decoder();
+        private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+        private boolean eof;
+
+        private Reader(Path path, FileChannel channel) throws IOException {
+            this.path = path;
+            this.channel = channel;
+            buffer.flip();
+            try {
+                fill(16);
+                SnapshotCodec.readHeader(buffer);
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                channel.close();
+                throw new IOException("Not a readable capture " + path + ": " + e.getMessage(), e);
+            }
+        }
+
+        /**
+         * Returns the next snapshot, or null at the end of the capture. A frame cut short (e.g. the
+         * recorder was killed mid-write) also ends the capture.
+         */
+        public SystemSnapshot next() throws IOException {
+            fill(MAX_VARINT_BYTES);
+            if (!buffer.hasRemaining()) {
+                return null;
+            }
+
+            long length;
+            try {
+                length = SnapshotCodec.readVarLong(buffer);
+            } catch (BufferUnderflowException e) {
+                return null;
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Corrupt capture " + path + ": " + e.getMessage(), e);
+            }
+            if (length <= 0 || length > Integer.MAX_VALUE - 8) {
+                throw new IOException("Corrupt capture " + path + ": invalid frame length " + length);
+            }
+            // A frame running past the end of the file was cut short; never allocate for it
+            if (length > channel.size() - channel.position() + buffer.remaining()) {
+                return null;
+            }
+
+            fill((int) length);
+            if (buffer.remaining() < length) {
+                return null;
+            }
+
+            ByteBuffer frame = buffer.slice();
+            frame.limit((int) length);
+            buffer.position(buffer.position() + (int) length);
+            try {
+                return decoder.decode(frame);
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                throw new IOException("Corrupt capture " + path + ": " + e.getMessage(), e);
+            }
+        }
+
+        // Makes at least {@code bytes} bytes readable, unless the file ends first
+        private void fill(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes || eof) {
+                return;
+            }
+            if (buffer.capacity() < bytes) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(bytes, buffer.capacity() * 2));
+                larger.put(buffer);
+                buffer = larger;
+            } else {
+                buffer.compact();
+            }
+            while (buffer.position() < bytes) {
+                if (channel.read(buffer) < 0) {
+                    eof = true;
+                    break;
+                }
+            }
+            buffer.flip();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
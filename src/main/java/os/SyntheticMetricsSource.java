@@ -0,0 +1,128 @@
+package os;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic load generator simulating an arbitrarily large machine. The same seed always
+ * produces the same sequence of snapshots, on a virtual clock advancing by a fixed interval per poll.
+ */
+public class SyntheticMetricsSource implements MetricsSource {
+
+    private static final long GB = 1024L * 1024 * 1024;
+    private static final String[] FS_TYPES = {"ext4", "xfs", "btrfs", "nfs4", "tmpfs", "overlay"};
+
+    private final Random random;
+    private final long intervalMillis;
+    private final int logicalCores;
+    private final long memoryTotal;
+    private final long swapTotal;
+    private final List<SystemSnapshot.MemoryModule> memoryModules;
+    private final String[] mountNames;
+    private final String[] mountTypes;
+    private final long[] mountTotals;
+    private final long[] mountUsed;
+    private final long[] mountInodes;
+    private final long[] mountInodesUsed;
+    private final int[] fanSpeeds;
+
+    private long tick = 0;
+    private double cpuLoad = 0.25;
+    private long memoryAvailable;
+    private long swapUsed = 0;
+    private long swapPagesIn = 0;
+    private long swapPagesOut = 0;
+    private long pageFaults = 0;
+    private long majorPageFaults = 0;
+    private double cpuTemperature = 45.0;
+
+    public SyntheticMetricsSource(int mounts, int cores, int fans, long seed, long intervalMillis) {
+        this.random = new Random(seed);
+        this.intervalMillis = intervalMillis;
+        this.logicalCores = cores;
+        this.memoryTotal = Math.max(4, cores / 2) * 4 * GB;
+        this.memoryAvailable = memoryTotal / 2;
+        this.swapTotal = memoryTotal / 4;
+
+        List<SystemSnapshot.MemoryModule> modules = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            modules.add(new SystemSnapshot.MemoryModule("DIMM" + i, memoryTotal / 8, 3_200_000_000L,
+                    "Synthetic", "DDR4"));
+        }
+        this.memoryModules = List.copyOf(modules);
+
+        mountNames = new String[mounts];
+        mountTypes = new String[mounts];
+        mountTotals = new long[mounts];
+        mountUsed = new long[mounts];
+        mountInodes = new long[mounts];
+        mountInodesUsed = new long[mounts];
+        for (int i = 0; i < mounts; i++) {
+            mountNames[i] = "/dev/sim" + i;
+            mountTypes[i] = FS_TYPES[random.nextInt(FS_TYPES.length)];
+            mountTotals[i] = (1 + random.nextInt(2048)) * GB;
+            mountUsed[i] = (long) (mountTotals[i] * random.nextDouble());
+            mountInodes[i] = mountTotals[i] / (16 * 1024);
+            mountInodesUsed[i] = (long) (mountInodes[i] * random.nextDouble());
+        }
+
+        fanSpeeds = new int[fans];
+        for (int i = 0; i < fans; i++) {
+            fanSpeeds[i] = 800 + random.nextInt(1200);
+        }
+    }
+
+    @Override
+    public SystemSnapshot poll() {
+        // Random walks keep successive values correlated, like a real machine
+        cpuLoad = clamp(cpuLoad + random.nextGaussian() * 0.05, 0.0, 1.0);
+        memoryAvailable = (long) clamp(memoryAvailable + random.nextGaussian() * 0.03 * memoryTotal,
+                0.05 * memoryTotal, memoryTotal);
+        cpuTemperature = clamp(35 + cpuLoad * 55 + random.nextGaussian(), 30.0, 100.0);
+
+        // Start swapping once less than 10% of RAM is available
+        long pressure = memoryTotal / 10 - memoryAvailable;
+        long pagedOut = pressure > 0 ? pressure / 4096 / 100 : 0;
+        long pagedIn = pressure > 0 ? (long) (pagedOut * random.nextDouble()) : 0;
+        swapPagesOut += pagedOut;
+        swapPagesIn += pagedIn;
+        swapUsed = Math.max(0, Math.min(swapTotal, swapUsed + (pagedOut - pagedIn) * 4096));
+        long faults = (long) (logicalCores * 500 * (cpuLoad + random.nextDouble()));
+        pageFaults += faults;
+        majorPageFaults += pagedIn + faults / 1000;
+
+        List<SystemSnapshot.FileStoreStats> fileStores = new ArrayList<>(mountNames.length);
+        for (int i = 0; i < mountNames.length; i++) {
+            long delta = (long) (random.nextGaussian() * 0.001 * mountTotals[i]);
+            mountUsed[i] = Math.max(0, Math.min(mountTotals[i], mountUsed[i] + delta));
+            long inodeDelta = (long) (random.nextGaussian() * 0.001 * mountInodes[i]);
+            mountInodesUsed[i] = Math.max(0, Math.min(mountInodes[i], mountInodesUsed[i] + inodeDelta));
+            fileStores.add(new SystemSnapshot.FileStoreStats(mountNames[i], "/mnt/sim" + i, mountTypes[i],
+                    mountTotals[i], mountTotals[i] - mountUsed[i], mountInodes[i],
+                    mountInodes[i] - mountInodesUsed[i], false));
+        }
+
+        int[] fans = new int[fanSpeeds.length];
+        for (int i = 0; i < fans.length; i++) {
+            fans[i] = (int) (fanSpeeds[i] * (0.5 + cpuLoad));
+        }
+
+        long elapsedMillis = tick++ * intervalMillis;
+        return new SystemSnapshot(
+                elapsedMillis,
+                "Synthetic OS (" + logicalCores + " cores, " + mountNames.length + " mounts)",
+                86_400 + elapsedMillis / 1000,
+                new SystemSnapshot.CpuStats("Synthetic CPU", Math.max(1, logicalCores / 2), logicalCores, cpuLoad),
+                new SystemSnapshot.MemoryStats(memoryTotal, memoryAvailable, swapTotal, swapUsed,
+                        memoryTotal - memoryAvailable + swapUsed, memoryTotal + swapTotal,
+                        swapPagesIn, swapPagesOut, pageFaults, majorPageFaults, memoryModules),
+                fileStores,
+                new SystemSnapshot.SensorStats(cpuTemperature, fans, 1.2),
+                List.of(new SystemSnapshot.GpuInfo("Synthetic GPU", "Synthetic", "1.0", 8 * GB)));
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
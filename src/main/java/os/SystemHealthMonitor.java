@@ -1,25 +1,32 @@
 package os;
 
-import oshi.SystemInfo;
-import oshi.hardware.*;
-import oshi.software.os.OperatingSystem;
-import oshi.software.os.OSFileStore;
-
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.awt.event.ActionListener;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
 import java.text.DecimalFormat;
 import java.util.List;
 import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 public class SystemHealthMonitor extends JFrame {
 
-    private final SystemInfo systemInfo = new SystemInfo();
-    private final HardwareAbstractionLayer hal = systemInfo.getHardware();
-    private final OperatingSystem os = systemInfo.getOperatingSystem();
+    private final MetricsSource source;
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "metrics-poller");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Object sourceLock = new Object();
+    private boolean sourceClosed;
+    private final PagingMonitor pagingMonitor = new PagingMonitor(30,
+            Double.parseDouble(System.getProperty("shm.alert.swapPagesPerSec", "100")));
     private final DecimalFormat df = new DecimalFormat("0.00");
-    private long[] prevTicks = hal.getProcessor().getSystemCpuLoadTicks();
 
     // UI Components
     private JPanel mainPanel;
@@ -29,6 +36,8 @@ public class SystemHealthMonitor extends JFrame {
     private JProgressBar cpuBar;
     private JProgressBar memoryBar;
     private JLabel uptimeLabel;
+    private JLabel osLabel;
+    private JLabel uptimeValueLabel;
     private JTextArea detailsArea;
 
     // Section panels
@@ -45,12 +54,14 @@ public class SystemHealthMonitor extends JFrame {
     private final Color ACCENT_COLOR = new Color(75, 145, 230);
     private final Color TEXT_COLOR = new Color(220, 220, 220);
     private final Color SECONDARY_TEXT_COLOR = new Color(180, 180, 180);
+    private final Color ALERT_COLOR = new Color(232, 65, 24);
     private final Font TITLE_FONT = new Font("Segoe UI", Font.BOLD, 16);
     private final Font REGULAR_FONT = new Font("Segoe UI", Font.PLAIN, 14);
     private final Font SMALL_FONT = new Font("Segoe UI", Font.PLAIN, 12);
     private final int PADDING = 15;
 
-    public SystemHealthMonitor() {
+    public SystemHealthMonitor(MetricsSource source) {
+        this.source = source;
         setTitle("System Health Monitor");
         setSize(1100, 700);
         setDefaultCloseOperation(EXIT_ON_CLOSE);
@@ -58,8 +69,10 @@ public class SystemHealthMonitor extends JFrame {
 
         setupUI();
 
-        Timer timer = new Timer(2000, e -> updateStats());
-        timer.start();
+        // Poll off the event dispatch thread so a slow source never freezes the UI; each poll is
+        // scheduled after the previous snapshot has been rendered, with the delay the source asks for
+        poller.execute(this::pollAndRender);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "metrics-shutdown"));
 
         setVisible(true);
     }
@@ -184,14 +197,14 @@ public class SystemHealthMonitor extends JFrame {
 
         // OS info card
         JPanel osCard = createInfoCard("Operating System");
-        JLabel osLabel = new JLabel(os.toString());
+        osLabel = new JLabel("Detecting...");
         osLabel.setForeground(TEXT_COLOR);
         osLabel.setFont(REGULAR_FONT);
         osCard.add(osLabel);
 
         // System uptime card
         JPanel uptimeCard = createInfoCard("System Uptime");
-        JLabel uptimeValueLabel = new JLabel("Calculating...");
+        uptimeValueLabel = new JLabel("Calculating...");
         uptimeValueLabel.setForeground(TEXT_COLOR);
         uptimeValueLabel.setFont(REGULAR_FONT);
         uptimeCard.add(uptimeValueLabel);
@@ -313,20 +326,69 @@ public class SystemHealthMonitor extends JFrame {
         return bar;
     }
 
-    private void updateStats() {
+    private void pollAndRender() {
+        try {
+            // Polling and closing are mutually exclusive, so nothing is recorded after the capture is closed
+            SystemSnapshot snapshot;
+            synchronized (sourceLock) {
+                if (sourceClosed) {
+                    return;
+                }
+                snapshot = source.poll();
+            }
+            SwingUtilities.invokeAndWait(() -> updateStats(snapshot));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (InvocationTargetException | RuntimeException e) {
+            // Keep polling after a failed snapshot
+            e.printStackTrace();
+        }
+        scheduleNextPoll();
+    }
+
+    private void scheduleNextPoll() {
+        long delayNanos;
+        synchronized (sourceLock) {
+            // Nothing new will come from an exhausted source; leave its last snapshot on screen
+            if (sourceClosed || source.isExhausted()) {
+                return;
+            }
+            delayNanos = source.nextPollDelayNanos();
+        }
+        try {
+            poller.schedule(this::pollAndRender, delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+
+    private void shutdown() {
+        poller.shutdownNow();
+        synchronized (sourceLock) {
+            sourceClosed = true;
+            try {
+                source.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void updateStats(SystemSnapshot snapshot) {
         StringBuilder sb = new StringBuilder();
 
         // Update CPU info
-        CentralProcessor cpu = hal.getProcessor();
-        double cpuLoad = cpu.getSystemCpuLoadBetweenTicks(prevTicks);
-        prevTicks = cpu.getSystemCpuLoadTicks();
+        SystemSnapshot.CpuStats cpu = snapshot.cpu();
+        double cpuLoad = cpu.load();
         int cpuLoadPercentage = (int) (cpuLoad * 100);
 
         // Update Memory info
-        GlobalMemory mem = hal.getMemory();
-        long totalMemory = mem.getTotal();
-        long availableMemory = mem.getAvailable();
-        long usedMemory = totalMemory - availableMemory;
+        SystemSnapshot.MemoryStats mem = snapshot.memory();
+        PagingMonitor.PagingRates paging = pagingMonitor.update(snapshot.timestampMillis(), mem);
+        long totalMemory = mem.total();
+        long availableMemory = mem.available();
+        long usedMemory = mem.used();
         int memoryPercentage = (int) (((double) usedMemory / totalMemory) * 100);
 
         // Update progress bars
@@ -334,27 +396,29 @@ public class SystemHealthMonitor extends JFrame {
         cpuBar.setString(cpuLoadPercentage + "%");
         memoryBar.setValue(memoryPercentage);
         memoryBar.setString(memoryPercentage + "% (" + formatBytes(usedMemory) + " / " + formatBytes(totalMemory) + ")");
+        memoryBar.setForeground(pagingMonitor.isSwapping() ? ALERT_COLOR : ACCENT_COLOR);
 
         // Update uptime
-        long uptimeSec = os.getSystemUptime();
-        Duration uptime = Duration.ofSeconds(uptimeSec);
+        Duration uptime = Duration.ofSeconds(snapshot.uptimeSeconds());
         long days = uptime.toDays();
         long hours = uptime.toHoursPart();
         long minutes = uptime.toMinutesPart();
         long seconds = uptime.toSecondsPart();
         String uptimeStr = String.format("%d days, %d h %d m %d s", days, hours, minutes, seconds);
         uptimeLabel.setText("Uptime: " + uptimeStr);
+        uptimeValueLabel.setText(uptimeStr);
+        osLabel.setText(snapshot.osName());
 
         // Build details text for overview
         sb.append("System Information Summary\n\n");
 
         // OS Info
-        sb.append("OS: ").append(os).append("\n");
+        sb.append("OS: ").append(snapshot.osName()).append("\n");
 
         // CPU Info
-        sb.append("\nCPU: ").append(cpu.getProcessorIdentifier().getName()).append("\n");
-        sb.append("Physical Cores: ").append(cpu.getPhysicalProcessorCount()).append("\n");
-        sb.append("Logical Cores: ").append(cpu.getLogicalProcessorCount()).append("\n");
+        sb.append("\nCPU: ").append(cpu.name()).append("\n");
+        sb.append("Physical Cores: ").append(cpu.physicalCores()).append("\n");
+        sb.append("Logical Cores: ").append(cpu.logicalCores()).append("\n");
         sb.append("CPU Load: ").append(df.format(cpuLoad * 100)).append("%\n");
 
         // Memory Info
@@ -362,24 +426,36 @@ public class SystemHealthMonitor extends JFrame {
         sb.append("Memory Available: ").append(formatBytes(availableMemory)).append("\n");
         sb.append("Memory Used: ").append(formatBytes(usedMemory)).append(" (")
                 .append(df.format(((double) usedMemory / totalMemory) * 100)).append("%)\n");
+        sb.append("Swap Used: ").append(formatBytes(mem.swapUsed())).append(" / ")
+                .append(formatBytes(mem.swapTotal())).append("\n");
+        sb.append("Swap In/Out: ").append(formatRate(paging.swapInPerSec())).append(" / ")
+                .append(formatRate(paging.swapOutPerSec())).append(" pages/s\n");
+        if (pagingMonitor.isSwapping()) {
+            sb.append("WARNING: System is swapping\n");
+        }
 
         // Disk Info
         sb.append("\nStorage:\n");
-        List<OSFileStore> fsList = os.getFileSystem().getFileStores();
-        for (OSFileStore fs : fsList) {
-            long usable = fs.getUsableSpace();
-            long total = fs.getTotalSpace();
+        List<SystemSnapshot.FileStoreStats> fsList = snapshot.fileStores();
+        for (SystemSnapshot.FileStoreStats fs : fsList) {
+            long usable = fs.usableSpace();
+            long total = fs.totalSpace();
+            sb.append("  ").append(fs.name()).append(" (").append(fs.mount()).append("): ");
+            if (total <= 0) {
+                sb.append("not responding\n");
+                continue;
+            }
             double usagePercentage = ((double) (total - usable) / total) * 100;
 
-            sb.append("  ").append(fs.getName()).append(" (").append(fs.getMount()).append("): ")
-                    .append(formatBytes(total - usable)).append(" / ")
+            sb.append(formatBytes(total - usable)).append(" / ")
                     .append(formatBytes(total)).append(" (")
-                    .append(df.format(usagePercentage)).append("%)\n");
+                    .append(df.format(usagePercentage)).append("%)")
+                    .append(fs.stale() ? " [not responding]\n" : "\n");
         }
 
         // Sensors
-        Sensors sensors = hal.getSensors();
-        double cpuTemp = sensors.getCpuTemperature();
+        SystemSnapshot.SensorStats sensors = snapshot.sensors();
+        double cpuTemp = sensors.cpuTemperature();
         if (cpuTemp > 0) {  // Some systems might not report temperature correctly
             sb.append("\nCPU Temperature: ").append(df.format(cpuTemp)).append(" °C\n");
         }
@@ -389,19 +465,19 @@ public class SystemHealthMonitor extends JFrame {
 
         // Update detail panels (these would be more comprehensive in a real implementation)
         updateCpuPanel(cpu);
-        updateMemoryPanel(mem);
+        updateMemoryPanel(mem, paging);
         updateStoragePanel(fsList);
-        updateGpuPanel();
+        updateGpuPanel(snapshot.gpus());
         updateSensorsPanel(sensors);
     }
 
-    private void updateCpuPanel(CentralProcessor cpu) {
+    private void updateCpuPanel(SystemSnapshot.CpuStats cpu) {
         JPanel cpuDetailsPanel = (JPanel) ((JScrollPane) cpuPanel.getComponent(1)).getViewport().getView();
         cpuDetailsPanel.removeAll();
 
         // CPU Name and basic info
         JPanel infoCard = createInfoCard("Processor");
-        JLabel cpuNameLabel = new JLabel(cpu.getProcessorIdentifier().getName());
+        JLabel cpuNameLabel = new JLabel(cpu.name());
         cpuNameLabel.setForeground(TEXT_COLOR);
         cpuNameLabel.setFont(REGULAR_FONT);
         infoCard.add(cpuNameLabel);
@@ -410,8 +486,8 @@ public class SystemHealthMonitor extends JFrame {
 
         // CPU cores
         JPanel coresCard = createInfoCard("Cores");
-        JLabel coresLabel = new JLabel("Physical: " + cpu.getPhysicalProcessorCount() +
-                " | Logical: " + cpu.getLogicalProcessorCount());
+        JLabel coresLabel = new JLabel("Physical: " + cpu.physicalCores() +
+                " | Logical: " + cpu.logicalCores());
         coresLabel.setForeground(TEXT_COLOR);
         coresLabel.setFont(REGULAR_FONT);
         coresCard.add(coresLabel);
@@ -421,7 +497,7 @@ public class SystemHealthMonitor extends JFrame {
         // CPU load
         JPanel loadCard = createInfoCard("Current Load");
         JProgressBar cpuLoadBar = createProgressBar();
-        double cpuLoad = cpu.getSystemCpuLoad(10);
+        double cpuLoad = cpu.load();
         int cpuLoadPercentage = (int) (cpuLoad * 100);
         cpuLoadBar.setValue(cpuLoadPercentage);
         cpuLoadBar.setString(cpuLoadPercentage + "%");
@@ -432,21 +508,22 @@ public class SystemHealthMonitor extends JFrame {
         cpuDetailsPanel.repaint();
     }
 
-    private void updateMemoryPanel(GlobalMemory mem) {
+    private void updateMemoryPanel(SystemSnapshot.MemoryStats mem, PagingMonitor.PagingRates paging) {
         // Clear existing components
         memoryPanel.removeAll();
 
         JLabel titleLabel = createSectionTitle("Memory Information");
         memoryPanel.add(titleLabel, BorderLayout.NORTH);
 
-        JPanel memoryContentPanel = new JPanel(new GridLayout(2, 1, 15, 15));
+        JPanel memoryContentPanel = new JPanel();
+        memoryContentPanel.setLayout(new BoxLayout(memoryContentPanel, BoxLayout.Y_AXIS));
         memoryContentPanel.setBackground(BACKGROUND_COLOR);
 
         // Memory usage card
         JPanel usageCard = createInfoCard("Memory Usage");
-        long totalMemory = mem.getTotal();
-        long availableMemory = mem.getAvailable();
-        long usedMemory = totalMemory - availableMemory;
+        long totalMemory = mem.total();
+        long availableMemory = mem.available();
+        long usedMemory = mem.used();
         int memoryPercentage = (int) (((double) usedMemory / totalMemory) * 100);
 
         JProgressBar memBar = createProgressBar();
@@ -454,27 +531,110 @@ public class SystemHealthMonitor extends JFrame {
         memBar.setString(memoryPercentage + "% (" + formatBytes(usedMemory) + " / " + formatBytes(totalMemory) + ")");
         usageCard.add(memBar);
 
+        // Swap usage, highlighted while the system is actively paging
+        usageCard.add(Box.createRigidArea(new Dimension(0, 10)));
+        JProgressBar swapBar = createProgressBar();
+        if (mem.swapTotal() > 0) {
+            int swapPercentage = (int) (((double) mem.swapUsed() / mem.swapTotal()) * 100);
+            swapBar.setValue(swapPercentage);
+            swapBar.setString("Swap " + swapPercentage + "% (" + formatBytes(mem.swapUsed()) + " / "
+                    + formatBytes(mem.swapTotal()) + ")");
+        } else {
+            swapBar.setString("No swap configured");
+        }
+        if (pagingMonitor.isSwapping()) {
+            swapBar.setForeground(ALERT_COLOR);
+        }
+        usageCard.add(swapBar);
+
         // Memory details card
         JPanel detailsCard = createInfoCard("Memory Details");
-        JPanel detailsGrid = new JPanel(new GridLayout(3, 2, 10, 10));
+        JPanel detailsGrid = new JPanel(new GridLayout(9, 2, 10, 10));
         detailsGrid.setBackground(PANEL_COLOR);
 
         addDetailRow(detailsGrid, "Total Memory:", formatBytes(totalMemory));
         addDetailRow(detailsGrid, "Used Memory:", formatBytes(usedMemory));
         addDetailRow(detailsGrid, "Available Memory:", formatBytes(availableMemory));
+        addDetailRow(detailsGrid, "Swap Used:", formatBytes(mem.swapUsed()) + " / " + formatBytes(mem.swapTotal()));
+        addDetailRow(detailsGrid, "Committed / Limit:",
+                formatBytes(mem.virtualInUse()) + " / " + formatBytes(mem.virtualMax()));
+        addDetailRow(detailsGrid, "Swap In / Out:", formatRate(paging.swapInPerSec()) + " / "
+                + formatRate(paging.swapOutPerSec()) + " pages/s");
+        addDetailRow(detailsGrid, "Peak Swap (recent):", formatRate(pagingMonitor.peakSwapPerSec()) + " pages/s");
+        addDetailRow(detailsGrid, "Page Faults:", formatRate(paging.faultsPerSec()) + " /s");
+        addDetailRow(detailsGrid, "Major Page Faults:", formatRate(paging.majorFaultsPerSec()) + " /s");
 
         detailsCard.add(detailsGrid);
 
+        // Recent paging activity, one bar per sample (swap in + out, red above the alert threshold)
+        List<PagingMonitor.PagingRates> history = pagingMonitor.history();
+        JPanel historyCard = createInfoCard("Swap Activity (last " + history.size() + " samples)");
+        historyCard.add(createSparkline(history));
+
+        // Physical memory modules
+        JPanel modulesCard = createInfoCard("Memory Modules");
+        if (mem.modules().isEmpty()) {
+            JLabel noModulesLabel = new JLabel("Memory module information not available");
+            noModulesLabel.setForeground(TEXT_COLOR);
+            noModulesLabel.setFont(REGULAR_FONT);
+            modulesCard.add(noModulesLabel);
+        } else {
+            JPanel modulesGrid = new JPanel(new GridLayout(mem.modules().size(), 2, 10, 10));
+            modulesGrid.setBackground(PANEL_COLOR);
+            for (SystemSnapshot.MemoryModule module : mem.modules()) {
+                addDetailRow(modulesGrid, module.bankLabel() + ":", formatBytes(module.capacity()) + " "
+                        + module.memoryType() + " @ " + module.clockSpeed() / 1_000_000 + " MHz ("
+                        + module.manufacturer() + ")");
+            }
+            modulesCard.add(modulesGrid);
+        }
+
         memoryContentPanel.add(usageCard);
+        memoryContentPanel.add(Box.createRigidArea(new Dimension(0, 15)));
         memoryContentPanel.add(detailsCard);
+        memoryContentPanel.add(Box.createRigidArea(new Dimension(0, 15)));
+        memoryContentPanel.add(historyCard);
+        memoryContentPanel.add(Box.createRigidArea(new Dimension(0, 15)));
+        memoryContentPanel.add(modulesCard);
 
-        memoryPanel.add(memoryContentPanel, BorderLayout.CENTER);
+        JScrollPane scrollPane = new JScrollPane(memoryContentPanel);
+        scrollPane.setBorder(BorderFactory.createEmptyBorder());
+        memoryPanel.add(scrollPane, BorderLayout.CENTER);
 
         memoryPanel.revalidate();
         memoryPanel.repaint();
     }
 
-    private void updateStoragePanel(List<OSFileStore> fsList) {
+    private JPanel createSparkline(List<PagingMonitor.PagingRates> history) {
+        double peak = Math.max(1, pagingMonitor.peakSwapPerSec());
+        JPanel sparkline = new JPanel() {
+            @Override
+            protected void paintComponent(Graphics g) {
+                super.paintComponent(g);
+                if (history.isEmpty()) {
+                    return;
+                }
+                int width = getWidth();
+                int height = getHeight();
+                int barWidth = Math.max(1, width / history.size());
+                for (int i = 0; i < history.size(); i++) {
+                    PagingMonitor.PagingRates rates = history.get(i);
+                    double swap = Math.max(0, rates.swapPerSec());
+                    int barHeight = (int) Math.max(1, swap / peak * height);
+                    g.setColor(rates.swapPerSec() > pagingMonitor.alertThreshold() ? ALERT_COLOR : ACCENT_COLOR);
+                    g.fillRect(i * barWidth, height - barHeight, barWidth - 1, barHeight);
+                }
+            }
+        };
+        sparkline.setBackground(new Color(50, 50, 50));
+        sparkline.setPreferredSize(new Dimension(300, 60));
+        sparkline.setMaximumSize(new Dimension(Integer.MAX_VALUE, 60));
+        sparkline.setAlignmentX(Component.LEFT_ALIGNMENT);
+        sparkline.setToolTipText("Peak " + formatRate(pagingMonitor.peakSwapPerSec()) + " pages/s");
+        return sparkline;
+    }
+
+    private void updateStoragePanel(List<SystemSnapshot.FileStoreStats> fsList) {
         // Clear existing components
         storagePanel.removeAll();
 
@@ -485,25 +645,47 @@ public class SystemHealthMonitor extends JFrame {
         storageContentPanel.setLayout(new BoxLayout(storageContentPanel, BoxLayout.Y_AXIS));
         storageContentPanel.setBackground(BACKGROUND_COLOR);
 
-        for (OSFileStore fs : fsList) {
-            JPanel diskCard = createInfoCard(fs.getName() + " (" + fs.getMount() + ")");
-
-            long total = fs.getTotalSpace();
-            long usable = fs.getUsableSpace();
-            long used = total - usable;
-            int usagePercentage = (int) (((double) used / total) * 100);
+        for (SystemSnapshot.FileStoreStats fs : fsList) {
+            JPanel diskCard = createInfoCard(fs.name() + " (" + fs.mount() + ")");
+
+            long total = fs.totalSpace();
+            long used = fs.usedSpace();
+            if (total > 0) {
+                int usagePercentage = (int) (((double) used / total) * 100);
+
+                JProgressBar diskBar = createProgressBar();
+                diskBar.setValue(usagePercentage);
+                diskBar.setString(usagePercentage + "% (" + formatBytes(used) + " / " + formatBytes(total) + ")");
+                if (fs.stale()) {
+                    diskBar.setForeground(SECONDARY_TEXT_COLOR);
+                }
+                diskCard.add(diskBar);
+            }
 
-            JProgressBar diskBar = createProgressBar();
-            diskBar.setValue(usagePercentage);
-            diskBar.setString(usagePercentage + "% (" + formatBytes(used) + " / " + formatBytes(total) + ")");
-            diskCard.add(diskBar);
+            if (fs.stale()) {
+                JLabel staleLabel = new JLabel(total > 0 ? "Not responding, showing last known values"
+                        : "Not responding");
+                staleLabel.setForeground(ALERT_COLOR);
+                staleLabel.setFont(SMALL_FONT);
+                diskCard.add(Box.createRigidArea(new Dimension(0, 5)));
+                diskCard.add(staleLabel);
+            }
 
-            JLabel typeLabel = new JLabel("Type: " + fs.getType());
+            JLabel typeLabel = new JLabel("Type: " + fs.type());
             typeLabel.setForeground(SECONDARY_TEXT_COLOR);
             typeLabel.setFont(SMALL_FONT);
             diskCard.add(Box.createRigidArea(new Dimension(0, 10)));
             diskCard.add(typeLabel);
 
+            if (fs.totalInodes() > 0) {
+                int inodePercentage = (int) (((double) fs.usedInodes() / fs.totalInodes()) * 100);
+                JLabel inodeLabel = new JLabel("Inodes: " + fs.usedInodes() + " / " + fs.totalInodes()
+                        + " (" + inodePercentage + "%)");
+                inodeLabel.setForeground(SECONDARY_TEXT_COLOR);
+                inodeLabel.setFont(SMALL_FONT);
+                diskCard.add(inodeLabel);
+            }
+
             storageContentPanel.add(diskCard);
             storageContentPanel.add(Box.createRigidArea(new Dimension(0, 15)));
         }
@@ -516,7 +698,7 @@ public class SystemHealthMonitor extends JFrame {
         storagePanel.repaint();
     }
 
-    private void updateGpuPanel() {
+    private void updateGpuPanel(List<SystemSnapshot.GpuInfo> gpus) {
         // Clear existing components
         gpuPanel.removeAll();
 
@@ -527,7 +709,6 @@ public class SystemHealthMonitor extends JFrame {
         gpuContentPanel.setLayout(new BoxLayout(gpuContentPanel, BoxLayout.Y_AXIS));
         gpuContentPanel.setBackground(BACKGROUND_COLOR);
 
-        List<GraphicsCard> gpus = hal.getGraphicsCards();
         if (gpus.isEmpty()) {
             JPanel noGpuCard = createInfoCard("No GPU Information");
             JLabel noGpuLabel = new JLabel("No graphics card information available");
@@ -536,21 +717,21 @@ public class SystemHealthMonitor extends JFrame {
             noGpuCard.add(noGpuLabel);
             gpuContentPanel.add(noGpuCard);
         } else {
-            for (GraphicsCard gpu : gpus) {
-                JPanel gpuCard = createInfoCard("GPU: " + gpu.getName());
+            for (SystemSnapshot.GpuInfo gpu : gpus) {
+                JPanel gpuCard = createInfoCard("GPU: " + gpu.name());
 
                 JPanel gpuDetails = new JPanel(new GridLayout(3, 1, 5, 5));
                 gpuDetails.setBackground(PANEL_COLOR);
 
-                JLabel vendorLabel = new JLabel("Vendor: " + gpu.getVendor());
+                JLabel vendorLabel = new JLabel("Vendor: " + gpu.vendor());
                 vendorLabel.setForeground(TEXT_COLOR);
                 vendorLabel.setFont(REGULAR_FONT);
 
-                JLabel versionLabel = new JLabel("Version: " + gpu.getVersionInfo());
+                JLabel versionLabel = new JLabel("Version: " + gpu.versionInfo());
                 versionLabel.setForeground(TEXT_COLOR);
                 versionLabel.setFont(REGULAR_FONT);
 
-                JLabel vramLabel = new JLabel("VRAM: " + formatBytes(gpu.getVRam()));
+                JLabel vramLabel = new JLabel("VRAM: " + formatBytes(gpu.vram()));
                 vramLabel.setForeground(TEXT_COLOR);
                 vramLabel.setFont(REGULAR_FONT);
 
@@ -572,7 +753,7 @@ public class SystemHealthMonitor extends JFrame {
         gpuPanel.repaint();
     }
 
-    private void updateSensorsPanel(Sensors sensors) {
+    private void updateSensorsPanel(SystemSnapshot.SensorStats sensors) {
         // Clear existing components
         sensorsPanel.removeAll();
 
@@ -584,7 +765,7 @@ public class SystemHealthMonitor extends JFrame {
 
         // CPU Temperature
         JPanel tempCard = createInfoCard("CPU Temperature");
-        double cpuTemp = sensors.getCpuTemperature();
+        double cpuTemp = sensors.cpuTemperature();
         if (cpuTemp > 0) {
             JProgressBar tempBar = createProgressBar();
             tempBar.setMaximum(100);  // Assuming 100°C is max safe
@@ -610,7 +791,7 @@ public class SystemHealthMonitor extends JFrame {
 
         // Fan Speeds
         JPanel fanCard = createInfoCard("Fan Speeds");
-        int[] fanSpeeds = sensors.getFanSpeeds();
+        int[] fanSpeeds = sensors.fanSpeeds();
         if (fanSpeeds.length > 0) {
             JPanel fansPanel = new JPanel(new GridLayout(fanSpeeds.length, 1, 5, 5));
             fansPanel.setBackground(PANEL_COLOR);
@@ -632,7 +813,7 @@ public class SystemHealthMonitor extends JFrame {
 
         // CPU Voltage
         JPanel voltageCard = createInfoCard("CPU Voltage");
-        double voltage = sensors.getCpuVoltage();
+        double voltage = sensors.cpuVoltage();
         if (voltage > 0) {
             JLabel voltageLabel = new JLabel(df.format(voltage) + " V");
             voltageLabel.setForeground(TEXT_COLOR);
@@ -676,6 +857,13 @@ public class SystemHealthMonitor extends JFrame {
         panel.add(valueComponent);
     }
 
+    private String formatRate(double perSecond) {
+        if (perSecond < 0) {
+            return "N/A";
+        }
+        return df.format(perSecond);
+    }
+
     private String formatBytes(long bytes) {
         if (bytes < 0) {
             return "N/A";
@@ -706,8 +894,16 @@ public class SystemHealthMonitor extends JFrame {
         // Apply custom styling to UI components
         customizeUIDefaults();
 
+        // Pick the metrics backend (live, replay or synthetic)
+        MetricsSource source;
+        try {
+            source = MetricsSource.fromSystemProperties();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
         // Launch application
-        SwingUtilities.invokeLater(SystemHealthMonitor::new);
+        SwingUtilities.invokeLater(() -> new SystemHealthMonitor(source));
     }
 
     private static void customizeUIDefaults() {
@@ -0,0 +1,73 @@
+package os;
+
+import java.util.List;
+
+/**
+ * One sample of everything the monitor displays, independent of where it came from
+ * (live OSHI, a recorded capture or the synthetic load generator).
+ */
+public record SystemSnapshot(
+        long timestampMillis,
+        String osName,
+        long uptimeSeconds,
+        CpuStats cpu,
+        MemoryStats memory,
+        List<FileStoreStats> fileStores,
+        SensorStats sensors,
+        List<GpuInfo> gpus) {
+
+    public record CpuStats(String name, int physicalCores, int logicalCores, double load) {
+    }
+
+    /**
+     * RAM, swap and commit figures. The paging counters are cumulative since boot (-1 when the
+     * platform does not report them); {@link PagingMonitor} turns them into rates.
+     */
+    public record MemoryStats(
+            long total,
+            long available,
+            long swapTotal,
+            long swapUsed,
+            long virtualInUse,
+            long virtualMax,
+            long swapPagesIn,
+            long swapPagesOut,
+            long pageFaults,
+            long majorPageFaults,
+            List<MemoryModule> modules) {
+
+        public long used() {
+            return total - available;
+        }
+    }
+
+    public record MemoryModule(String bankLabel, long capacity, long clockSpeed, String manufacturer,
+                               String memoryType) {
+    }
+
+    /**
+     * Usage of one mount. {@code stale} marks a mount whose query is stuck: the values are the last
+     * ones it answered with, or -1 if it never answered.
+     */
+    public record FileStoreStats(String name, String mount, String type, long totalSpace, long usableSpace,
+                                 long totalInodes, long freeInodes, boolean stale) {
+
+        public long usedSpace() {
+            return totalSpace - usableSpace;
+        }
+
+        public long usedInodes() {
+            return totalInodes - freeInodes;
+        }
+
+        public FileStoreStats asStale() {
+            return new FileStoreStats(name, mount, type, totalSpace, usableSpace, totalInodes, freeInodes, true);
+        }
+    }
+
+    public record SensorStats(double cpuTemperature, int[] fanSpeeds, double cpuVoltage) {
+    }
+
+    public record GpuInfo(String name, String vendor, String versionInfo, long vram) {
+    }
+}
@@ -0,0 +1,62 @@
+package os;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileStoreCollectorTest {
+
+    private final FileStoreFilter defaults = FileStoreFilter.fromSystemProperties();
+
+    // Each row is a mount table of "type mount-point source" entries separated by ';', in mountinfo order,
+    // and the mount points the default filter should leave visible
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "ext4 / /dev/sda1; ext4 /data /dev/sdb1                           | /,/data",
+            "ext4 /data /dev/sdb1; tmpfs /data tmpfs                          | ''",
+            "tmpfs /data tmpfs; ext4 /data /dev/sdb1                          | /data",
+            "ext4 /data /dev/sdb1; tmpfs /data tmpfs; xfs /data /dev/sdc1     | /data",
+            "ext4 /mnt/my\\040disk /dev/sdb1                                  | /mnt/my disk",
+            "vfat /run/media/alice/USB\\040STICK /dev/sdc1                    | /run/media/alice/USB STICK",
+            "ext4 / /dev/sda1; tmpfs /run tmpfs; tmpfs /run/user/1000 tmpfs; fuse.portal /run/user/1000/doc portal"
+                    + "; ext4 /run/media/alice/backup /dev/sdd1                 | /,/run/media/alice/backup",
+            "sysfs /sys sysfs; ext4 /sys/fs/custom /dev/sdb1; ext4 /system /dev/sdc1 | /system",
+            "proc /proc proc; ext4 /var/lib/docker/overlay /dev/sda1; ext4 /var/lib/dockerish /dev/sdb1"
+                    + "                                                          | /var/lib/dockerish",
+    })
+    void parsesAndFiltersMountInfo(String table, String expected) {
+        StringBuilder mountInfo = new StringBuilder();
+        int id = 20;
+        for (String entry : table.split(";")) {
+            String[] fields = entry.trim().split(" ");
+            mountInfo.append(id).append(' ').append(id - 1).append(" 8:1 / ").append(fields[1])
+                    .append(" rw,relatime shared:1 - ").append(fields[0]).append(' ').append(fields[2])
+                    .append(" rw\n");
+            id++;
+        }
+
+        List<String> visible = new ArrayList<>();
+        for (FileStoreCollector.Mount mount : FileStoreCollector.parseMountInfo(mountInfo.toString(), defaults)) {
+            visible.add(mount.mount());
+        }
+        assertEquals(expected.isEmpty() ? List.of() : Arrays.asList(expected.split(",")), visible);
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "/mnt/data            | /mnt/data",
+            "/mnt/my\\040disk     | /mnt/my disk",
+            "/mnt/tab\\011here    | '/mnt/tab\there'",
+            "/mnt/back\\134slash  | /mnt/back\\slash",
+            "/mnt/a\\040b\\040c   | /mnt/a b c",
+            "/mnt/trailing\\04    | /mnt/trailing\\04",
+    })
+    void unescapesOctalSequences(String field, String expected) {
+        assertEquals(expected, FileStoreCollector.unescape(field));
+    }
+}
@@ -0,0 +1,61 @@
+package os;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileStoreFilterTest {
+
+    private final FileStoreFilter defaults = FileStoreFilter.fromSystemProperties();
+
+    @Test
+    void removableDrivesUnderRunMediaAreShown() {
+        assertTrue(defaults.accepts("vfat", "/run/media/alice/USB STICK"));
+        assertTrue(defaults.accepts("ext4", "/run/media/alice/backup"));
+        assertFalse(defaults.accepts("fuse.portal", "/run/user/1000/doc"));
+        assertFalse(defaults.accepts("ext4", "/run/user/1000/gvfs"));
+        assertFalse(defaults.accepts("tmpfs", "/run"));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "ext4,  /,                    true",
+            "ext4,  /sys,                 false",
+            "ext4,  /sys/fs/custom,       false",
+            "ext4,  /system,              true",
+            "ext4,  /systemd-data,        true",
+            "ext4,  /dev/shm,             false",
+            "ext4,  /devices,             true",
+            "ext4,  /snap/core/1,         false",
+            "ext4,  /snapshots,           true",
+            "ext4,  /var/lib/docker,      false",
+            "ext4,  /var/lib/dockerish,   true",
+            "tmpfs, /data,                false",
+            "nfs4,  /mnt/share,           false",
+            "xfs,   /run/media/bob/disk,  true",
+    })
+    void defaultsMatchMountPrefixesOnPathBoundaries(String type, String mount, boolean accepted) {
+        assertEquals(accepted, defaults.accepts(type, mount));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "ext4,  /home,        true",
+            "ext4,  /home/alice,  true",
+            "ext4,  /homework,    false",
+            "ext4,  /data/,       true",
+            "ext4,  /data/cache,  false",
+            "btrfs, /home,        false",
+            "nfs4,  /home/remote, true",
+    })
+    void explicitIncludesAndExcludes(String type, String mount, boolean accepted) {
+        FileStoreFilter filter = new FileStoreFilter(false, Set.of("ext4", "nfs4"), Set.of(),
+                List.of("/home", "/data/"), List.of("/data/cache"));
+        assertEquals(accepted, filter.accepts(type, mount));
+    }
+}
@@ -0,0 +1,95 @@
+package os;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PagingMonitorTest {
+
+    @Test
+    void firstSnapshotHasNoRates() {
+        PagingMonitor monitor = new PagingMonitor(5, 100);
+        assertEquals(PagingMonitor.PagingRates.UNKNOWN, monitor.update(0, memory(10, 20, 1000, 5)));
+        assertTrue(monitor.history().isEmpty());
+        assertFalse(monitor.isSwapping());
+    }
+
+    @Test
+    void ratesArePerSecondOverTheElapsedTime() {
+        PagingMonitor monitor = new PagingMonitor(5, 100);
+        monitor.update(1_000, memory(100, 200, 10_000, 50));
+        PagingMonitor.PagingRates rates = monitor.update(3_000, memory(300, 600, 14_000, 54));
+
+        assertEquals(100, rates.swapInPerSec());
+        assertEquals(200, rates.swapOutPerSec());
+        assertEquals(2_000, rates.faultsPerSec());
+        assertEquals(2, rates.majorFaultsPerSec());
+        assertEquals(300, rates.swapPerSec());
+        assertTrue(monitor.isSwapping());
+        assertEquals(rates, monitor.latest());
+    }
+
+    @Test
+    void counterResetNeverGivesANegativeRate() {
+        PagingMonitor monitor = new PagingMonitor(5, 100);
+        monitor.update(0, memory(5_000, 5_000, 90_000, 900));
+        PagingMonitor.PagingRates rates = monitor.update(1_000, memory(10, 20, 100, 1));
+
+        assertEquals(new PagingMonitor.PagingRates(0, 0, 0, 0), rates);
+        assertFalse(monitor.isSwapping());
+    }
+
+    @Test
+    void unknownCountersGiveUnknownRates() {
+        PagingMonitor monitor = new PagingMonitor(5, 100);
+        monitor.update(0, memory(10, 20, -1, -1));
+        PagingMonitor.PagingRates rates = monitor.update(1_000, memory(-1, 30, -1, 7));
+
+        assertEquals(-1, rates.swapInPerSec());
+        assertEquals(10, rates.swapOutPerSec());
+        assertEquals(-1, rates.faultsPerSec());
+        assertEquals(-1, rates.majorFaultsPerSec());
+        assertEquals(-1, rates.swapPerSec());
+        assertFalse(monitor.isSwapping());
+    }
+
+    @Test
+    void equalOrEarlierTimestampKeepsThePreviousRates() {
+        PagingMonitor monitor = new PagingMonitor(5, 100);
+        monitor.update(0, memory(0, 0, 0, 0));
+        PagingMonitor.PagingRates rates = monitor.update(1_000, memory(50, 50, 500, 5));
+
+        assertSame(rates, monitor.update(1_000, memory(900, 900, 9_000, 90)));
+        assertSame(rates, monitor.update(500, memory(950, 950, 9_500, 95)));
+        assertEquals(1, monitor.history().size());
+
+        // The skipped snapshot still becomes the baseline for the next rate
+        assertEquals(25, monitor.update(1_500, memory(975, 975, 9_600, 95)).swapInPerSec());
+    }
+
+    @Test
+    void historyKeepsOnlyTheMostRecentRates() {
+        PagingMonitor monitor = new PagingMonitor(3, 100);
+        for (int i = 0; i <= 5; i++) {
+            monitor.update(i * 1_000L, memory(i * i * 10L, 0, 0, 0));
+        }
+
+        List<PagingMonitor.PagingRates> history = monitor.history();
+        assertEquals(3, history.size());
+        assertEquals(50, history.get(0).swapInPerSec());
+        assertEquals(70, history.get(1).swapInPerSec());
+        assertEquals(90, history.get(2).swapInPerSec());
+        assertEquals(90, monitor.peakSwapPerSec());
+
+        history.clear();
+        assertEquals(3, monitor.history().size());
+    }
+
+    private static SystemSnapshot.MemoryStats memory(long swapPagesIn, long swapPagesOut, long pageFaults,
+                                                     long majorPageFaults) {
+        return new SystemSnapshot.MemoryStats(16L << 30, 8L << 30, 4L << 30, 0, 8L << 30, 20L << 30,
+                swapPagesIn, swapPagesOut, pageFaults, majorPageFaults, List.of());
+    }
+}
@@ -0,0 +1,82 @@
+package os;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayMetricsSourceTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void maxSpeedReturnsEveryFrameOnceThenReportsExhausted() throws IOException {
+        Path capture = record(5);
+
+        List<Long> timestamps = new ArrayList<>();
+        try (ReplayMetricsSource replay = new ReplayMetricsSource(SnapshotFile.open(capture),
+                ReplayMetricsSource.MAX_SPEED)) {
+            assertEquals(0, replay.nextPollDelayNanos());
+            for (int i = 0; i < 100 && !replay.isExhausted(); i++) {
+                timestamps.add(replay.poll().timestampMillis());
+            }
+            assertTrue(replay.isExhausted());
+        }
+        assertEquals(List.of(0L, 1000L, 2000L, 3000L, 4000L), timestamps);
+    }
+
+    @Test
+    void singleFrameCaptureIsExhaustedAfterFirstPoll() throws IOException {
+        Path capture = record(1);
+
+        try (ReplayMetricsSource replay = new ReplayMetricsSource(SnapshotFile.open(capture),
+                ReplayMetricsSource.MAX_SPEED)) {
+            assertFalse(replay.isExhausted());
+            assertEquals(0, replay.poll().timestampMillis());
+            assertTrue(replay.isExhausted());
+        }
+    }
+
+    @Test
+    void nxSpeedAsksForEveryFrameNTimesFaster() throws IOException {
+        Path capture = record(3);
+
+        try (ReplayMetricsSource replay = new ReplayMetricsSource(SnapshotFile.open(capture), 4)) {
+            // Frames are 1000 ms apart, so at 4x each one is due 250 ms after the previous
+            for (long timestamp = 0; timestamp <= 2000; timestamp += 1000) {
+                assertEquals(timestamp, replay.poll().timestampMillis());
+                long delay = replay.nextPollDelayNanos();
+                assertTrue(delay <= 250_000_000L, "delay " + delay);
+                sleepNanos(delay);
+            }
+            assertTrue(replay.isExhausted());
+        }
+    }
+
+    private static void sleepNanos(long nanos) {
+        if (nanos > 0) {
+            try {
+                Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private Path record(int frames) throws IOException {
+        Path capture = dir.resolve("capture.shm");
+        SyntheticMetricsSource source = new SyntheticMetricsSource(3, 4, 1, 5, 1000);
+        try (SnapshotFile.Writer writer = SnapshotFile.create(capture)) {
+            for (int i = 0; i < frames; i++) {
+                writer.write(source.poll());
+            }
+        }
+        return capture;
+    }
+}
@@ -0,0 +1,292 @@
+package os;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotCodecTest {
+
+    @Test
+    void roundTripsSyntheticFrames() {
+        List<SystemSnapshot> frames = syntheticFrames(new SyntheticMetricsSource(50, 64, 8, 7, 2000), 200);
+        assertRoundTrip(frames);
+    }
+
+    @Test
+    void shapeChangeForcesKeyframe() {
+        SyntheticMetricsSource small = new SyntheticMetricsSource(3, 8, 2, 1, 1000);
+        SyntheticMetricsSource large = new SyntheticMetricsSource(10, 8, 4, 2, 1000);
+        List<SystemSnapshot> frames = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            frames.add((i / 5) % 2 == 0 ? small.poll() : large.poll());
+        }
+
+        ByteBuffer buffer = encode(frames);
+        SnapshotCodec.Decoder decoder = new SnapshotCodec.Decoder();
+        SnapshotCodec.readHeader(buffer);
+        for (int i = 0; i < frames.size(); i++) {
+            boolean keyframe = i % 5 == 0;
+            assertEquals(keyframe ? 1 : 2, buffer.get(buffer.position()), "frame " + i);
+            assertSnapshotEquals(frames.get(i), decoder.decode(buffer));
+            int fans = frames.get(i).sensors().fanSpeeds().length;
+            int stores = frames.get(i).fileStores().size();
+            assertEquals(14 + fans + stores * 5, decoder.metricCount());
+        }
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void roundTripsSpecialDoubles() {
+        double[] values = {Double.NaN, -0.0, 0.0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+                Double.MIN_VALUE, Double.MAX_VALUE, Double.longBitsToDouble(0x7FF8_0000_0000_0001L), 1.5};
+        List<SystemSnapshot> frames = new ArrayList<>();
+        for (int i = 0; i < values.length; i++) {
+            double value = values[i];
+            double other = values[values.length - 1 - i];
+            frames.add(snapshot(i * 1000L, value, other, value, 0));
+        }
+        assertRoundTrip(frames);
+    }
+
+    @Test
+    void roundTripsUnknownCountersAndExtremes() {
+        long[] values = {-1, 0, -1, Long.MAX_VALUE, Long.MIN_VALUE, -1, 1L << 40, -1};
+        List<SystemSnapshot> frames = new ArrayList<>();
+        for (int i = 0; i < values.length; i++) {
+            frames.add(snapshot(i * 1000L, 0.5, 40.0, 1.2, values[i]));
+        }
+        assertRoundTrip(frames);
+    }
+
+    @Test
+    void roundTripsIrregularTimestamps() {
+        long[] timestamps = {1_700_000_000_000L, 1_700_000_002_000L, 1_700_000_004_000L, 1_700_000_004_001L,
+                1_700_000_003_000L, 1_700_000_093_000L};
+        List<SystemSnapshot> frames = new ArrayList<>();
+        for (long timestamp : timestamps) {
+            frames.add(snapshot(timestamp, 0.5, 40.0, 1.2, 5));
+        }
+        assertRoundTrip(frames);
+    }
+
+    @Test
+    void overflowRestoresPositionAndForcesKeyframe() {
+        List<SystemSnapshot> frames = syntheticFrames(new SyntheticMetricsSource(20, 8, 2, 3, 1000), 3);
+        SnapshotCodec.Encoder encoder = new SnapshotCodec.Encoder();
+        ByteBuffer out = ByteBuffer.allocate(1 << 16);
+        SnapshotCodec.writeHeader(out);
+        encoder.encode(frames.get(0), out);
+
+        ByteBuffer tiny = ByteBuffer.allocate(4);
+        assertThrows(BufferOverflowException.class, () -> encoder.encode(frames.get(1), tiny));
+        assertEquals(0, tiny.position());
+
+        int start = out.position();
+        encoder.encode(frames.get(1), out);
+        assertEquals(1, out.get(start), "retry after overflow must be a keyframe");
+        encoder.encode(frames.get(2), out);
+
+        out.flip();
+        SnapshotCodec.readHeader(out);
+        SnapshotCodec.Decoder decoder = new SnapshotCodec.Decoder();
+        for (SystemSnapshot frame : frames) {
+            assertSnapshotEquals(frame, decoder.decode(out));
+        }
+    }
+
+    @Test
+    void rejectsUnknownMagicOrVersion() {
+        ByteBuffer magic = ByteBuffer.allocate(8).putInt(0x12345678).put(SnapshotCodec.VERSION).flip();
+        assertThrows(IllegalArgumentException.class, () -> SnapshotCodec.readHeader(magic));
+
+        ByteBuffer version = ByteBuffer.allocate(8).putInt(SnapshotCodec.MAGIC).put((byte) 99).flip();
+        assertThrows(IllegalArgumentException.class, () -> SnapshotCodec.readHeader(version));
+    }
+
+    @Test
+    void corruptOrTruncatedInputOnlyFailsCleanly() {
+        List<SystemSnapshot> frames = syntheticFrames(new SyntheticMetricsSource(5, 8, 2, 11, 1000), 20);
+        byte[] valid = toArray(encode(frames));
+        Random random = new Random(1234);
+
+        for (int iteration = 0; iteration < 5000; iteration++) {
+            byte[] input = valid.clone();
+            if (random.nextBoolean()) {
+                int flips = 1 + random.nextInt(8);
+                for (int i = 0; i < flips; i++) {
+                    input[5 + random.nextInt(input.length - 5)] = (byte) random.nextInt(256);
+                }
+            }
+            if (random.nextBoolean()) {
+                input = Arrays.copyOf(input, 5 + random.nextInt(input.length - 5));
+            }
+
+            ByteBuffer in = ByteBuffer.wrap(input);
+            SnapshotCodec.readHeader(in);
+            SnapshotCodec.Decoder decoder = new SnapshotCodec.Decoder();
+            try {
+                while (in.hasRemaining()) {
+                    decoder.decode(in);
+                }
+            } catch (BufferUnderflowException | IllegalArgumentException expected) {
+                // The only ways a damaged stream may fail
+            }
+        }
+    }
+
+    @Test
+    void isMuchSmallerThanNdjson() {
+        List<SystemSnapshot> frames = syntheticFrames(new SyntheticMetricsSource(1000, 256, 8, 42, 2000), 100);
+        long codecBytes = encode(frames).remaining();
+        long ndjsonBytes = 0;
+        for (SystemSnapshot frame : frames) {
+            ndjsonBytes += toNdjson(frame).getBytes(StandardCharsets.UTF_8).length;
+        }
+        assertTrue(codecBytes * 5 < ndjsonBytes,
+                "codec " + codecBytes + " bytes vs NDJSON " + ndjsonBytes + " bytes");
+    }
+
+    private static List<SystemSnapshot> syntheticFrames(SyntheticMetricsSource source, int count) {
+        List<SystemSnapshot> frames = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            frames.add(source.poll());
+        }
+        return frames;
+    }
+
+    private static SystemSnapshot snapshot(long timestamp, double load, double temperature, double voltage,
+                                           long counter) {
+        return new SystemSnapshot(timestamp, "Test OS", counter,
+                new SystemSnapshot.CpuStats("Test CPU", 4, 8, load),
+                new SystemSnapshot.MemoryStats(16L << 30, counter, 4L << 30, counter, counter, counter,
+                        counter, counter, counter, counter, List.of()),
+                List.of(new SystemSnapshot.FileStoreStats("/dev/sda1", "/", "ext4", 100L << 30, counter,
+                        counter, counter, counter < 0)),
+                new SystemSnapshot.SensorStats(temperature, new int[]{(int) counter, 1200}, voltage),
+                List.of());
+    }
+
+    private static ByteBuffer encode(List<SystemSnapshot> frames) {
+        ByteBuffer out = ByteBuffer.allocate(1 << 22);
+        SnapshotCodec.writeHeader(out);
+        SnapshotCodec.Encoder encoder = new SnapshotCodec.Encoder();
+        for (SystemSnapshot frame : frames) {
+            encoder.encode(frame, out);
+        }
+        return out.flip();
+    }
+
+    private static void assertRoundTrip(List<SystemSnapshot> frames) {
+        ByteBuffer in = encode(frames);
+        SnapshotCodec.readHeader(in);
+        SnapshotCodec.Decoder decoder = new SnapshotCodec.Decoder();
+        for (SystemSnapshot frame : frames) {
+            assertSnapshotEquals(frame, decoder.decode(in));
+        }
+        assertFalse(in.hasRemaining());
+    }
+
+    // Record equality compares the fan array by reference and folds NaN payloads together, so compare those
+    // fields by content and raw bits instead
+    private static void assertSnapshotEquals(SystemSnapshot expected, SystemSnapshot actual) {
+        assertEquals(expected.timestampMillis(), actual.timestampMillis());
+        assertEquals(expected.osName(), actual.osName());
+        assertEquals(expected.uptimeSeconds(), actual.uptimeSeconds());
+        assertEquals(expected.cpu().name(), actual.cpu().name());
+        assertEquals(expected.cpu().physicalCores(), actual.cpu().physicalCores());
+        assertEquals(expected.cpu().logicalCores(), actual.cpu().logicalCores());
+        assertBitsEqual(expected.cpu().load(), actual.cpu().load());
+        assertEquals(expected.memory(), actual.memory());
+        assertEquals(expected.fileStores(), actual.fileStores());
+        assertBitsEqual(expected.sensors().cpuTemperature(), actual.sensors().cpuTemperature());
+        assertBitsEqual(expected.sensors().cpuVoltage(), actual.sensors().cpuVoltage());
+        assertArrayEquals(expected.sensors().fanSpeeds(), actual.sensors().fanSpeeds());
+        assertEquals(expected.gpus(), actual.gpus());
+    }
+
+    private static void assertBitsEqual(double expected, double actual) {
+        assertEquals(Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(actual),
+                expected + " vs " + actual);
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    // A straightforward NDJSON line per snapshot, as a generic exporter would write it
+    private static String toNdjson(SystemSnapshot s) {
+        StringBuilder sb = new StringBuilder();
+        SystemSnapshot.MemoryStats m = s.memory();
+        sb.append("{\"timestampMillis\":").append(s.timestampMillis())
+                .append(",\"osName\":").append(quote(s.osName()))
+                .append(",\"uptimeSeconds\":").append(s.uptimeSeconds())
+                .append(",\"cpu\":{\"name\":").append(quote(s.cpu().name()))
+                .append(",\"physicalCores\":").append(s.cpu().physicalCores())
+                .append(",\"logicalCores\":").append(s.cpu().logicalCores())
+                .append(",\"load\":").append(s.cpu().load())
+                .append("},\"memory\":{\"total\":").append(m.total())
+                .append(",\"available\":").append(m.available())
+                .append(",\"swapTotal\":").append(m.swapTotal())
+                .append(",\"swapUsed\":").append(m.swapUsed())
+                .append(",\"virtualInUse\":").append(m.virtualInUse())
+                .append(",\"virtualMax\":").append(m.virtualMax())
+                .append(",\"swapPagesIn\":").append(m.swapPagesIn())
+                .append(",\"swapPagesOut\":").append(m.swapPagesOut())
+                .append(",\"pageFaults\":").append(m.pageFaults())
+                .append(",\"majorPageFaults\":").append(m.majorPageFaults())
+                .append(",\"modules\":[");
+        for (int i = 0; i < m.modules().size(); i++) {
+            SystemSnapshot.MemoryModule module = m.modules().get(i);
+            sb.append(i == 0 ? "" : ",")
+                    .append("{\"bankLabel\":").append(quote(module.bankLabel()))
+                    .append(",\"capacity\":").append(module.capacity())
+                    .append(",\"clockSpeed\":").append(module.clockSpeed())
+                    .append(",\"manufacturer\":").append(quote(module.manufacturer()))
+                    .append(",\"memoryType\":").append(quote(module.memoryType())).append('}');
+        }
+        sb.append("]},\"fileStores\":[");
+        for (int i = 0; i < s.fileStores().size(); i++) {
+            SystemSnapshot.FileStoreStats fs = s.fileStores().get(i);
+            sb.append(i == 0 ? "" : ",")
+                    .append("{\"name\":").append(quote(fs.name()))
+                    .append(",\"mount\":").append(quote(fs.mount()))
+                    .append(",\"type\":").append(quote(fs.type()))
+                    .append(",\"totalSpace\":").append(fs.totalSpace())
+                    .append(",\"usableSpace\":").append(fs.usableSpace())
+                    .append(",\"totalInodes\":").append(fs.totalInodes())
+                    .append(",\"freeInodes\":").append(fs.freeInodes())
+                    .append(",\"stale\":").append(fs.stale()).append('}');
+        }
+        sb.append("],\"sensors\":{\"cpuTemperature\":").append(s.sensors().cpuTemperature())
+                .append(",\"fanSpeeds\":[");
+        int[] fans = s.sensors().fanSpeeds();
+        for (int i = 0; i < fans.length; i++) {
+            sb.append(i == 0 ? "" : ",").append(fans[i]);
+        }
+        sb.append("],\"cpuVoltage\":").append(s.sensors().cpuVoltage()).append("},\"gpus\":[");
+        for (int i = 0; i < s.gpus().size(); i++) {
+            SystemSnapshot.GpuInfo gpu = s.gpus().get(i);
+            sb.append(i == 0 ? "" : ",")
+                    .append("{\"name\":").append(quote(gpu.name()))
+                    .append(",\"vendor\":").append(quote(gpu.vendor()))
+                    .append(",\"versionInfo\":").append(quote(gpu.versionInfo()))
+                    .append(",\"vram\":").append(gpu.vram()).append('}');
+        }
+        return sb.append("]}\n").toString();
+    }
+
+    private static String quote(String value) {
+        return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+}
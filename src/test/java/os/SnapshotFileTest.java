@@ -0,0 +1,127 @@
+package os;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotFileTest {
+
+    private static final int HEADER_BYTES = 5;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsBackWhatWasWritten() throws IOException {
+        List<SystemSnapshot> frames = frames(20);
+        Path capture = write(frames);
+
+        assertEquals(timestamps(frames), readTimestamps(capture));
+    }
+
+    @Test
+    void truncatedTailEndsTheCaptureAfterTheLastCompleteFrame() throws IOException {
+        List<SystemSnapshot> frames = frames(5);
+        byte[] valid = Files.readAllBytes(write(frames));
+        List<Long> expected = timestamps(frames);
+
+        Path truncated = dir.resolve("truncated.shm");
+        for (int size = HEADER_BYTES; size < valid.length; size++) {
+            Files.write(truncated, Arrays.copyOf(valid, size));
+            List<Long> read = readTimestamps(truncated);
+            assertTrue(read.size() < frames.size(), "size " + size);
+            assertEquals(expected.subList(0, read.size()), read, "size " + size);
+        }
+    }
+
+    @Test
+    void hugeFrameLengthIsNotAllocated() throws IOException {
+        List<SystemSnapshot> frames = frames(3);
+        byte[] valid = Files.readAllBytes(write(frames));
+
+        // A length varint claiming ~2 GB right after the complete frames
+        ByteBuffer tail = ByteBuffer.allocate(10);
+        SnapshotCodec.writeVarLong(tail, Integer.MAX_VALUE - 16);
+        byte[] corrupt = Arrays.copyOf(valid, valid.length + tail.position() + 4);
+        System.arraycopy(tail.array(), 0, corrupt, valid.length, tail.position());
+        Path capture = dir.resolve("corrupt.shm");
+        Files.write(capture, corrupt);
+
+        assertEquals(timestamps(frames), readTimestamps(capture));
+    }
+
+    @Test
+    void corruptCaptureEndsOrFailsWithIOException() throws IOException {
+        byte[] valid = Files.readAllBytes(write(frames(10)));
+        Random random = new Random(99);
+        Path capture = dir.resolve("fuzz.shm");
+
+        for (int iteration = 0; iteration < 500; iteration++) {
+            byte[] input = valid.clone();
+            int flips = 1 + random.nextInt(4);
+            for (int i = 0; i < flips; i++) {
+                input[HEADER_BYTES + random.nextInt(input.length - HEADER_BYTES)] = (byte) random.nextInt(256);
+            }
+            if (random.nextBoolean()) {
+                input = Arrays.copyOf(input, HEADER_BYTES + random.nextInt(input.length - HEADER_BYTES));
+            }
+            Files.write(capture, input);
+
+            try (SnapshotFile.Reader reader = SnapshotFile.open(capture)) {
+                for (int i = 0; i < 100 && reader.next() != null; i++) {
+                    // Drain
+                }
+            } catch (IOException expected) {
+                // Corruption may only surface as IOException
+            }
+        }
+    }
+
+    private static List<SystemSnapshot> frames(int count) {
+        SyntheticMetricsSource source = new SyntheticMetricsSource(4, 8, 2, 17, 1000);
+        List<SystemSnapshot> frames = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            frames.add(source.poll());
+        }
+        return frames;
+    }
+
+    private Path write(List<SystemSnapshot> frames) throws IOException {
+        Path capture = dir.resolve("capture.shm");
+        try (SnapshotFile.Writer writer = SnapshotFile.create(capture)) {
+            for (SystemSnapshot frame : frames) {
+                writer.write(frame);
+            }
+        }
+        return capture;
+    }
+
+    private static List<Long> readTimestamps(Path capture) throws IOException {
+        List<Long> timestamps = new ArrayList<>();
+        try (SnapshotFile.Reader reader = SnapshotFile.open(capture)) {
+            SystemSnapshot snapshot;
+            while ((snapshot = reader.next()) != null) {
+                timestamps.add(snapshot.timestampMillis());
+            }
+        }
+        return timestamps;
+    }
+
+    private static List<Long> timestamps(List<SystemSnapshot> frames) {
+        List<Long> timestamps = new ArrayList<>(frames.size());
+        for (SystemSnapshot frame : frames) {
+            timestamps.add(frame.timestampMillis());
+        }
+        return timestamps;
+    }
+}